@@ -25,17 +25,27 @@ import net.sourceforge.jbarcodebean.model.Codabar;
 import net.sourceforge.jbarcodebean.model.Codabar_2to1;
 import net.sourceforge.jbarcodebean.model.Code11;
 import net.sourceforge.jbarcodebean.model.Code128;
+import net.sourceforge.jbarcodebean.model.Code128Optimized;
 import net.sourceforge.jbarcodebean.model.Code39;
 import net.sourceforge.jbarcodebean.model.Code39_2to1;
 import net.sourceforge.jbarcodebean.model.Code93;
 import net.sourceforge.jbarcodebean.model.Code93Extended;
 import net.sourceforge.jbarcodebean.model.Ean13;
+import net.sourceforge.jbarcodebean.model.Ean2;
+import net.sourceforge.jbarcodebean.model.Ean5;
 import net.sourceforge.jbarcodebean.model.Ean8;
 import net.sourceforge.jbarcodebean.model.ExtendedCode39;
 import net.sourceforge.jbarcodebean.model.ExtendedCode39_2to1;
+import net.sourceforge.jbarcodebean.model.Gs1_128;
+import net.sourceforge.jbarcodebean.model.ITF14;
 import net.sourceforge.jbarcodebean.model.Interleaved25;
 import net.sourceforge.jbarcodebean.model.Interleaved25_2to1;
 import net.sourceforge.jbarcodebean.model.MSI;
+import net.sourceforge.jbarcodebean.model.MSI_Mod10_10;
+import net.sourceforge.jbarcodebean.model.MSI_Mod11;
+import net.sourceforge.jbarcodebean.model.TwoWidthBarcodeStrategy;
+import net.sourceforge.jbarcodebean.model.UpcA;
+import net.sourceforge.jbarcodebean.model.UpcE;
 
 /**
  * A property editor for the {@link BarcodeStrategy} type.
@@ -47,24 +57,41 @@ public class BarcodeStrategyEditor extends PropertyEditorSupport {
 
     private static final String EAN_8               = "EAN-8";
     private static final String EAN_13              = "EAN-13";
+    private static final String UPC_A               = "UPC-A";
+    private static final String UPC_E               = "UPC-E";
+    private static final String EAN_5               = "EAN-5 add-on";
+    private static final String EAN_2               = "EAN-2 add-on";
     private static final String CODABAR_2_1         = "Codabar 2:1";
     private static final String CODABAR_3_1         = "Codabar 3:1";
     private static final String MSI_MOD_10_CHECK    = "MSI (mod 10 check)";
+    private static final String MSI_MOD_11_CHECK    = "MSI (mod 11 check)";
+    private static final String MSI_MOD_10_10_CHECK = "MSI (mod 10/10 check)";
     private static final String INTERLEAVED_25_2_1  = "Interleaved 25 2:1";
     private static final String INTERLEAVED_25_3_1  = "Interleaved 25 3:1";
+    private static final String ITF_14              = "ITF-14";
     private static final String EXT_CODE_39_2_1     = "Ext Code 39 2:1";
     private static final String EXT_CODE_39_3_1     = "Ext Code 39 3:1";
     private static final String CODE_39_2_1         = "Code 39 2:1";
     private static final String CODE_39_3_1         = "Code 39 3:1";
     private static final String CODE_128            = "Code 128";
+    private static final String CODE_128_OPTIMIZED  = "Code 128 (optimized)";
+    private static final String GS1_128             = "GS1-128";
     private static final String CODE_93             = "Code 93";
     private static final String CODE_93_EXTENDED    = "Code 93 Extended";
     private static final String CODE_11             = "Code 11";
 
+    /* Names of the types with a wide:narrow ratio, which follows the name */
+    private static final String CODABAR             = "Codabar";
+    private static final String INTERLEAVED_25      = "Interleaved 25";
+    private static final String EXT_CODE_39         = "Ext Code 39";
+    private static final String CODE_39             = "Code 39";
+
     public String[] getTags() {
         return new String[] {
                         CODE_11,
                         CODE_128,
+                        CODE_128_OPTIMIZED,
+                        GS1_128,
                         CODE_39_3_1,
                         CODE_39_2_1,
                         EXT_CODE_39_3_1,
@@ -73,17 +100,28 @@ public class BarcodeStrategyEditor extends PropertyEditorSupport {
                         CODE_93_EXTENDED,
                         INTERLEAVED_25_3_1,
                         INTERLEAVED_25_2_1,
+                        ITF_14,
                         MSI_MOD_10_CHECK,
+                        MSI_MOD_11_CHECK,
+                        MSI_MOD_10_10_CHECK,
                         CODABAR_3_1,
                         CODABAR_2_1,
                         EAN_13,
-                        EAN_8
+                        EAN_8,
+                        UPC_A,
+                        UPC_E,
+                        EAN_5,
+                        EAN_2
         };
     }
 
     public void setAsText(String s) {
         if (s.equals(CODE_128)) {
             setValue(new Code128());
+        } else if (s.equals(CODE_128_OPTIMIZED)) {
+            setValue(new Code128Optimized());
+        } else if (s.equals(GS1_128)) {
+            setValue(new Gs1_128());
         } else if (s.equals(CODE_39_3_1)) {
             setValue(new Code39());
         } else if (s.equals(CODE_39_2_1)) {
@@ -96,8 +134,14 @@ public class BarcodeStrategyEditor extends PropertyEditorSupport {
             setValue(new Interleaved25());
         } else if (s.equals(INTERLEAVED_25_2_1)) {
             setValue(new Interleaved25_2to1());
+        } else if (s.equals(ITF_14)) {
+            setValue(new ITF14());
         } else if (s.equals(MSI_MOD_10_CHECK)) {
             setValue(new MSI());
+        } else if (s.equals(MSI_MOD_11_CHECK)) {
+            setValue(new MSI_Mod11());
+        } else if (s.equals(MSI_MOD_10_10_CHECK)) {
+            setValue(new MSI_Mod10_10());
         } else if (s.equals(CODABAR_3_1)) {
             setValue(new Codabar());
         } else if (s.equals(CODABAR_2_1)) {
@@ -106,56 +150,129 @@ public class BarcodeStrategyEditor extends PropertyEditorSupport {
             setValue(new Ean13());
         } else if (s.equals(EAN_8)) {
             setValue(new Ean8());
+        } else if (s.equals(UPC_A)) {
+            setValue(new UpcA());
+        } else if (s.equals(UPC_E)) {
+            setValue(new UpcE());
+        } else if (s.equals(EAN_5)) {
+            setValue(new Ean5());
+        } else if (s.equals(EAN_2)) {
+            setValue(new Ean2());
         } else if (s.equals(CODE_93)) {
             setValue(new Code93());
         } else if (s.equals(CODE_93_EXTENDED)) {
             setValue(new Code93Extended());
         } else if (s.equals(CODE_11)) {
             setValue(new Code11());
-        } else {
+        } else if (!setRatioText(s)) {
             // Default to Code 39
             setValue(new Code39());
         }
     }
 
+    /**
+     * Sets a strategy from the name of a type with a wide:narrow ratio
+     * followed by the ratio as a fraction, such as <tt>Code 39 5:2</tt>.
+     *
+     * @return <tt>false</tt> if <tt>s</tt> is not of that form.
+     *
+     * @throws IllegalArgumentException If the ratio is not supported.
+     */
+    private boolean setRatioText(String s) {
+        int space = s.lastIndexOf(' ');
+        int colon = s.indexOf(':', space + 1);
+        if (space < 0 || colon < 0) {
+            return false;
+        }
+        String name = s.substring(0, space);
+        double ratio;
+        try {
+            ratio = (double) Integer.parseInt(s.substring(space + 1, colon))
+                    / Integer.parseInt(s.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (name.equals(CODE_39)) {
+            setValue(new Code39(ratio));
+        } else if (name.equals(EXT_CODE_39)) {
+            setValue(new ExtendedCode39(ratio));
+        } else if (name.equals(INTERLEAVED_25)) {
+            setValue(new Interleaved25(ratio));
+        } else if (name.equals(ITF_14)) {
+            setValue(new ITF14(ratio));
+        } else if (name.equals(CODABAR)) {
+            setValue(new Codabar(ratio));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     public String getAsText() {
         BarcodeStrategy s = (BarcodeStrategy)getValue();
         if (s.getClass().equals(Code128.class)) {
             // Code 128
             return CODE_128;
+        } else if (s.getClass().equals(Code128Optimized.class)) {
+            // Code 128 with the shortest encoding
+            return CODE_128_OPTIMIZED;
+        } else if (s.getClass().equals(Gs1_128.class)) {
+            // GS1-128
+            return GS1_128;
         } else if (s.getClass().equals(Code39_2to1.class)) {
             // Code 3 of 9 2:1
             return CODE_39_2_1;
         } else if (s.getClass().equals(Code39.class)) {
-            // Code 3 of 9 3:1
-            return CODE_39_3_1;
+            // Code 3 of 9, 3:1 unless another ratio was given
+            return getRatioText(CODE_39, s);
         } else if (s.getClass().equals(ExtendedCode39_2to1.class)) {
             // Extended Code 3 of 9 2:1
             return EXT_CODE_39_2_1;
         } else if (s.getClass().equals(ExtendedCode39.class)) {
-            // Extended Code 3 of 9 3:1
-            return EXT_CODE_39_3_1;
+            // Extended Code 3 of 9, 3:1 unless another ratio was given
+            return getRatioText(EXT_CODE_39, s);
         } else if (s.getClass().equals(Interleaved25_2to1.class)) {
             // Interleaved 25 2:1
             return INTERLEAVED_25_2_1;
         } else if (s.getClass().equals(Interleaved25.class)) {
-            // Interleaved 25 3:1
-            return INTERLEAVED_25_3_1;
+            // Interleaved 25, 3:1 unless another ratio was given
+            return getRatioText(INTERLEAVED_25, s);
+        } else if (s.getClass().equals(ITF14.class)) {
+            // ITF-14, with the ratio unless it is 3:1
+            return ((ITF14) s).getRatio() == 3 ? ITF_14 : getRatioText(ITF_14, s);
         } else if (s.getClass().equals(MSI.class)) {
             // MSI
             return MSI_MOD_10_CHECK;
+        } else if (s.getClass().equals(MSI_Mod11.class)) {
+            // MSI with mod 11 check
+            return MSI_MOD_11_CHECK;
+        } else if (s.getClass().equals(MSI_Mod10_10.class)) {
+            // MSI with mod 10/10 check
+            return MSI_MOD_10_10_CHECK;
         } else if (s.getClass().equals(Codabar_2to1.class)) {
             // Codabar 2:1
             return CODABAR_2_1;
         } else if (s.getClass().equals(Codabar.class)) {
-            // Codabar 3:1
-            return CODABAR_3_1;
+            // Codabar, 3:1 unless another ratio was given
+            return getRatioText(CODABAR, s);
         } else if (s.getClass().equals(Ean13.class)) {
             // EAN-13
             return EAN_13;
         } else if (s.getClass().equals(Ean8.class)) {
             // EAN-8
             return EAN_8;
+        } else if (s.getClass().equals(UpcA.class)) {
+            // UPC-A
+            return UPC_A;
+        } else if (s.getClass().equals(UpcE.class)) {
+            // UPC-E
+            return UPC_E;
+        } else if (s.getClass().equals(Ean5.class)) {
+            // EAN-5 add-on
+            return EAN_5;
+        } else if (s.getClass().equals(Ean2.class)) {
+            // EAN-2 add-on
+            return EAN_2;
         } else if (s.getClass().equals(Code93.class)) {
             // EAN-8
             return CODE_93;
@@ -176,39 +293,66 @@ public class BarcodeStrategyEditor extends PropertyEditorSupport {
         if (s.getClass().equals(Code128.class)) {
             // Code 128
             return "new jbarcodebean.Code128()";
+        } else if (s.getClass().equals(Code128Optimized.class)) {
+            // Code 128 with the shortest encoding
+            return "new jbarcodebean.Code128Optimized()";
+        } else if (s.getClass().equals(Gs1_128.class)) {
+            // GS1-128
+            return "new jbarcodebean.Gs1_128()";
         } else if (s.getClass().equals(Code39_2to1.class)) {
             // Code 3 of 9 2:1
             return "new jbarcodebean.Code39_2to1()";
         } else if (s.getClass().equals(Code39.class)) {
             // Code 3 of 9 3:1
-            return "new jbarcodebean.Code39()";
+            return "new jbarcodebean.Code39(" + getRatioArgument(s) + ")";
         } else if (s.getClass().equals(ExtendedCode39_2to1.class)) {
             // Extended Code 3 of 9 2:1
             return "new jbarcodebean.ExtendedCode39_2to1()";
         } else if (s.getClass().equals(ExtendedCode39.class)) {
             // Extended Code 3 of 9 3:1
-            return "new jbarcodebean.ExtendedCode39()";
+            return "new jbarcodebean.ExtendedCode39(" + getRatioArgument(s) + ")";
         } else if (s.getClass().equals(Interleaved25_2to1.class)) {
             // Interleaved 25 2:1
             return "new jbarcodebean.Interleaved25_2to1()";
         } else if (s.getClass().equals(Interleaved25.class)) {
             // Interleaved 25 3:1
-            return "new jbarcodebean.Interleaved25()";
+            return "new jbarcodebean.Interleaved25(" + getRatioArgument(s) + ")";
+        } else if (s.getClass().equals(ITF14.class)) {
+            // ITF-14
+            return "new jbarcodebean.ITF14(" + getRatioArgument(s) + ")";
         } else if (s.getClass().equals(MSI.class)) {
             // MSI
             return "new jbarcodebean.MSI()";
+        } else if (s.getClass().equals(MSI_Mod11.class)) {
+            // MSI with mod 11 check
+            return "new jbarcodebean.MSI_Mod11()";
+        } else if (s.getClass().equals(MSI_Mod10_10.class)) {
+            // MSI with mod 10/10 check
+            return "new jbarcodebean.MSI_Mod10_10()";
         } else if (s.getClass().equals(Codabar_2to1.class)) {
             // Codabar 2:1
             return "new jbarcodebean.Codabar_2to1()";
         } else if (s.getClass().equals(Codabar.class)) {
             // Codabar 3:1
-            return "new jbarcodebean.Codabar()";
+            return "new jbarcodebean.Codabar(" + getRatioArgument(s) + ")";
         } else if (s.getClass().equals(Ean13.class)) {
             // EAN-13
             return "new jbarcodebean.Ean13()";
         } else if (s.getClass().equals(Ean8.class)) {
             // EAN-8
             return "new jbarcodebean.Ean8()";
+        } else if (s.getClass().equals(UpcA.class)) {
+            // UPC-A
+            return "new jbarcodebean.UpcA()";
+        } else if (s.getClass().equals(UpcE.class)) {
+            // UPC-E
+            return "new jbarcodebean.UpcE()";
+        } else if (s.getClass().equals(Ean5.class)) {
+            // EAN-5 add-on
+            return "new jbarcodebean.Ean5()";
+        } else if (s.getClass().equals(Ean2.class)) {
+            // EAN-2 add-on
+            return "new jbarcodebean.Ean2()";
         } else if (s.getClass().equals(Code93.class)) {
             // EAN-8
             return "new jbarcodebean.Code93()";
@@ -223,4 +367,30 @@ public class BarcodeStrategyEditor extends PropertyEditorSupport {
             return "new jbarcodebean.Code39()";
         }
     }
+
+    /**
+     * Returns <tt>name</tt> followed by the wide:narrow ratio of <tt>s</tt>
+     * as an exact fraction, such as <tt>Code 39 5:2</tt>.
+     */
+    private static String getRatioText(String name, BarcodeStrategy s) {
+        TwoWidthBarcodeStrategy strategy = (TwoWidthBarcodeStrategy) s;
+        return name + ' ' + strategy.getWideWidth() + ':' + strategy.getNarrowWidth();
+    }
+
+    /**
+     * Returns the constructor argument for the wide:narrow ratio of
+     * <tt>s</tt>, or an empty String for the default 3:1 ratio.  Ratios
+     * that are not whole numbers are written as a division, such as
+     * <tt>8.0 / 3</tt>, so that they are exact.
+     */
+    private static String getRatioArgument(BarcodeStrategy s) {
+        TwoWidthBarcodeStrategy strategy = (TwoWidthBarcodeStrategy) s;
+        if (strategy.getRatio() == 3) {
+            return "";
+        }
+        if (strategy.getNarrowWidth() == 1) {
+            return strategy.getWideWidth() + ".0";
+        }
+        return strategy.getWideWidth() + ".0 / " + strategy.getNarrowWidth();
+    }
 }
@@ -27,14 +27,257 @@ import net.sourceforge.jbarcodebean.model.BarcodeStrategy;
  */
 public class EncodedBarcode implements java.io.Serializable {
 
-  /** The bars and spaces in the barcode */
-  public BarcodeElement[] elements;
+  private static final long serialVersionUID = 1L;
+
+  /** The widest bar or space that can be held, in units */
+  static final int MAX_WIDTH = 255;
+
+  /** Shared elements of every width that fits in a byte, indexed by type and width */
+  private static final BarcodeElement[][] sharedElements = new BarcodeElement[2][MAX_WIDTH + 1];
+
+  static {
+    for (int width = 0; width <= MAX_WIDTH; width++) {
+      sharedElements[BarcodeElement.TYPE_SPACE][width] = new BarcodeElement(BarcodeElement.TYPE_SPACE, width);
+      sharedElements[BarcodeElement.TYPE_BAR][width] = new BarcodeElement(BarcodeElement.TYPE_BAR, width);
+    }
+  }
+
+  /**
+   * The bars and spaces in the barcode.  This is the array passed to the
+   * {@link #EncodedBarcode(BarcodeElement[], String) legacy constructor}.
+   * For a barcode created from packed widths it is <tt>null</tt> until
+   * {@link #getElements} is first called.  Changes to it are not seen by
+   * {@link #getWidth} and {@link #getType}.
+   *
+   * @deprecated Use {@link #getElementCount}, {@link #getWidth} and
+   * {@link #getType}, or {@link #getElements}.
+   */
+  @Deprecated
+  public transient BarcodeElement[] elements;
   /** The text caption that is displayed underneath the barcode */
   public String barcodeLabelText;
 
-  /** Initializing constructor */
+  /**
+   * The widths of the bars and spaces, in units (see getNarrowWidth), read
+   * as unsigned bytes.  Bars and spaces alternate, starting with the type
+   * held in firstType.
+   */
+  private final byte[] widths;
+  /** The type of the first element, {@link BarcodeElement#TYPE_BAR} or {@link BarcodeElement#TYPE_SPACE} */
+  private final int firstType;
+  /** The number of units in the narrowest module */
+  private final int narrowWidth;
+  /** The width of the bearer bars framing the barcode, or 0 if there are none */
+  private final int bearerBarWidth;
+
+  /**
+   * Initializing constructor.  Adjacent elements of the same type are merged
+   * in the packed representation, and elements of zero width are dropped.
+   *
+   * @throws IllegalArgumentException If an element has a negative width, or
+   * a run of elements of the same type is wider than 255.
+   */
   public EncodedBarcode(BarcodeElement[] elements, String barcodeLabelText) {
     this.elements = elements;
     this.barcodeLabelText = barcodeLabelText;
+    byte[] packed = new byte[elements.length];
+    int count = 0;
+    int first = BarcodeElement.TYPE_SPACE;
+    int lastType = -1;
+    for (int i = 0; i < elements.length; i++) {
+      int width = elements[i].getWidth();
+      if (width < 0 || width > MAX_WIDTH) {
+        throw new IllegalArgumentException("Element width out of range: " + width);
+      }
+      if (width == 0) {
+        continue;
+      }
+      int type = elements[i].getType();
+      if (count == 0) {
+        first = type;
+      } else if (type == lastType) {
+        width += packed[count - 1] & 0xFF;
+        if (width > MAX_WIDTH) {
+          throw new IllegalArgumentException("Element width out of range: " + width);
+        }
+        packed[count - 1] = (byte) width;
+        continue;
+      }
+      packed[count++] = (byte) width;
+      lastType = type;
+    }
+    if (count < packed.length) {
+      byte[] trimmed = new byte[count];
+      System.arraycopy(packed, 0, trimmed, 0, count);
+      packed = trimmed;
+    }
+    this.widths = packed;
+    this.firstType = first;
+    this.narrowWidth = 1;
+    this.bearerBarWidth = 0;
+  }
+
+  /**
+   * Initializing constructor for the packed representation.  The array is
+   * not copied.
+   *
+   * @param widths The widths of the alternating bars and spaces, from 1 to
+   * 255 read as unsigned bytes.
+   * @param firstType The type of the first element.
+   * @param barcodeLabelText The text caption.
+   *
+   * @since 1.2.1
+   */
+  public EncodedBarcode(byte[] widths, int firstType, String barcodeLabelText) {
+    this(widths, firstType, 1, 0, barcodeLabelText);
+  }
+
+  /**
+   * Initializing constructor for the packed representation of a barcode
+   * whose widths are measured in units smaller than the narrowest module,
+   * or which is framed by bearer bars.  The array is not copied.
+   *
+   * @param widths The widths of the alternating bars and spaces, in units,
+   * from 1 to 255 read as unsigned bytes.
+   * @param firstType The type of the first element.
+   * @param narrowWidth The width of the narrowest module, in units, see
+   * {@link #getNarrowWidth}.
+   * @param bearerBarWidth The width of the bearer bars, in units, see
+   * {@link #getBearerBarWidth}.
+   * @param barcodeLabelText The text caption.
+   *
+   * @since 1.2.1
+   */
+  public EncodedBarcode(byte[] widths, int firstType, int narrowWidth, int bearerBarWidth, String barcodeLabelText) {
+    this.widths = widths;
+    this.firstType = firstType;
+    this.narrowWidth = narrowWidth;
+    this.bearerBarWidth = bearerBarWidth;
+    this.barcodeLabelText = barcodeLabelText;
+  }
+
+  /**
+   * Creates a copy of <tt>barcode</tt>.  The copy shares the packed widths,
+   * which never change; its elements array is created when first asked for.
+   *
+   * @since 1.2.1
+   */
+  public EncodedBarcode(EncodedBarcode barcode) {
+    this.widths = barcode.widths;
+    this.firstType = barcode.firstType;
+    this.barcodeLabelText = barcode.barcodeLabelText;
+    this.narrowWidth = barcode.narrowWidth;
+    this.bearerBarWidth = barcode.bearerBarWidth;
+  }
+
+  /**
+   * Returns the bars and spaces in the barcode as {@link BarcodeElement}
+   * objects.  The array is created from the packed widths on the first call
+   * and stored in {@link #elements}.
+   *
+   * @since 1.2.1
+   */
+  public BarcodeElement[] getElements() {
+    if (elements == null) {
+      elements = toElements();
+    }
+    return elements;
+  }
+
+  /**
+   * Creates the elements array from the packed widths.  Elements are
+   * immutable, so those of the common widths are shared.
+   */
+  private BarcodeElement[] toElements() {
+    BarcodeElement[] result = new BarcodeElement[widths.length];
+    for (int i = 0; i < widths.length; i++) {
+      int type = getType(i);
+      result[i] = sharedElements[type][widths[i] & 0xFF];
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of bars and spaces in the barcode.
+   *
+   * @since 1.2.1
+   */
+  public int getElementCount() {
+    return widths.length;
+  }
+
+  /**
+   * Returns the width of the element at <tt>index</tt>, in units.  See
+   * {@link #getNarrowWidth}.
+   *
+   * @since 1.2.1
+   */
+  public int getWidth(int index) {
+    return widths[index] & 0xFF;
+  }
+
+  /**
+   * Returns the type of the element at <tt>index</tt>, either
+   * {@link BarcodeElement#TYPE_BAR} or {@link BarcodeElement#TYPE_SPACE}.
+   *
+   * @since 1.2.1
+   */
+  public int getType(int index) {
+    if ((index & 1) == 0) {
+      return firstType;
+    }
+    return firstType == BarcodeElement.TYPE_BAR ? BarcodeElement.TYPE_SPACE : BarcodeElement.TYPE_BAR;
+  }
+
+  /**
+   * Returns the number of units in the narrowest module.  Widths are
+   * given in units, which are the narrowest module width unless the barcode
+   * has a wide:narrow ratio that is not a whole number: a 2.5:1 barcode has
+   * narrow elements of 2 units and wide elements of 5.  A barcode is
+   * rendered with a unit width of the narrowest module width divided by
+   * this value.
+   *
+   * @since 1.2.1
+   */
+  public int getNarrowWidth() {
+    return narrowWidth;
+  }
+
+  /**
+   * Returns the width of the bearer bars that frame the barcode, in units,
+   * or 0 if the barcode has no bearer bars.  The frame is drawn over the outer edge of the margins and
+   * is not part of the elements.
+   *
+   * @since 1.2.1
+   */
+  public int getBearerBarWidth() {
+    return bearerBarWidth;
+  }
+
+  /**
+   * Returns the bars and spaces as a bitmap with one bit per unit.
+   *
+   * @since 1.2.1
+   */
+  public ModuleBitmap toModuleBitmap() {
+    ModuleBitmap bitmap = new ModuleBitmap(getTotalWidth());
+    bitmap.begin(narrowWidth, bearerBarWidth);
+    for (int i = 0; i < widths.length; i++) {
+      bitmap.appendElement(getType(i), widths[i] & 0xFF);
+    }
+    return bitmap;
+  }
+
+  /**
+   * Returns the sum of all element widths, in units.
+   *
+   * @since 1.2.1
+   */
+  public int getTotalWidth() {
+    int total = 0;
+    for (int i = 0; i < widths.length; i++) {
+      total += widths[i] & 0xFF;
+    }
+    return total;
   }
 }
@@ -27,15 +27,24 @@ import net.sourceforge.jbarcodebean.model.BarcodeStrategy;
 import net.sourceforge.jbarcodebean.model.Codabar;
 import net.sourceforge.jbarcodebean.model.Codabar_2to1;
 import net.sourceforge.jbarcodebean.model.Code128;
+import net.sourceforge.jbarcodebean.model.Code128Optimized;
 import net.sourceforge.jbarcodebean.model.Code39;
 import net.sourceforge.jbarcodebean.model.Code39_2to1;
 import net.sourceforge.jbarcodebean.model.Ean13;
+import net.sourceforge.jbarcodebean.model.Ean2;
+import net.sourceforge.jbarcodebean.model.Ean5;
 import net.sourceforge.jbarcodebean.model.Ean8;
 import net.sourceforge.jbarcodebean.model.ExtendedCode39;
 import net.sourceforge.jbarcodebean.model.ExtendedCode39_2to1;
+import net.sourceforge.jbarcodebean.model.Gs1_128;
+import net.sourceforge.jbarcodebean.model.ITF14;
 import net.sourceforge.jbarcodebean.model.Interleaved25;
 import net.sourceforge.jbarcodebean.model.Interleaved25_2to1;
 import net.sourceforge.jbarcodebean.model.MSI;
+import net.sourceforge.jbarcodebean.model.MSI_Mod10_10;
+import net.sourceforge.jbarcodebean.model.MSI_Mod11;
+import net.sourceforge.jbarcodebean.model.UpcA;
+import net.sourceforge.jbarcodebean.model.UpcE;
 
 import java.io.*;
 import java.net.URL;
@@ -78,17 +87,26 @@ import java.awt.image.*;
  *
  * <ul>
  * <li>{@link Code128}
+ * <li>{@link Code128Optimized}
+ * <li>{@link Gs1_128}
  * <li>{@link Code39}
  * <li>{@link Code39_2to1}
  * <li>{@link ExtendedCode39}
  * <li>{@link ExtendedCode39_2to1}
  * <li>{@link Interleaved25}
  * <li>{@link Interleaved25_2to1}
+ * <li>{@link ITF14}
  * <li>{@link Codabar}
  * <li>{@link Codabar_2to1}
  * <li>{@link MSI}
+ * <li>{@link MSI_Mod11}
+ * <li>{@link MSI_Mod10_10}
  * <li>{@link Ean8}
  * <li>{@link Ean13}
+ * <li>{@link UpcA}
+ * <li>{@link UpcE}
+ * <li>{@link Ean5}
+ * <li>{@link Ean2}
  * </ul>
  * <p>
  *
@@ -654,17 +672,34 @@ public class JBarcodeBean extends JComponent implements java.io.Serializable, Ac
             } else {
                 x=(d.width-barcodeWidth)/2;
             }
-            for(int i = 0; i < encoded.elements.length; i++) {
-                if (encoded.elements[i].getType()==BarcodeElement.TYPE_BAR) {
+            // Widths are in units of narrowestBarWidth / narrowWidth pixels;
+            // each element spans the pixels between its rounded edges.
+            int narrowWidth = encoded.getNarrowWidth();
+            int left = x;
+            int units = 0;
+            int count = encoded.getElementCount();
+            for(int i = 0; i < count; i++) {
+                if (encoded.getType(i)==BarcodeElement.TYPE_BAR) {
                     // bar
                     g.setColor(getForeground());
                 } else {
                     // space
                     g.setColor(barcodeBackground);
                 }
-                int barWidth = encoded.elements[i].getWidth() * narrowestBarWidth;
-                g.fillRect(x, barcodeTop, barWidth, barcodeHeight);
-                x += barWidth;
+                units += encoded.getWidth(i);
+                int right = left + units * narrowestBarWidth / narrowWidth;
+                g.fillRect(x, barcodeTop, right - x, barcodeHeight);
+                x = right;
+            }
+
+            // Draw bearer bars
+            if (encoded.getBearerBarWidth() > 0) {
+                int bearerWidth = encoded.getBearerBarWidth() * narrowestBarWidth / narrowWidth;
+                g.setColor(getForeground());
+                g.fillRect(left, barcodeTop, barcodeWidth, bearerWidth);
+                g.fillRect(left, barcodeTop + barcodeHeight - bearerWidth, barcodeWidth, bearerWidth);
+                g.fillRect(left, barcodeTop, bearerWidth, barcodeHeight);
+                g.fillRect(x - bearerWidth, barcodeTop, bearerWidth, barcodeHeight);
             }
 
             // Draw text
@@ -743,9 +778,7 @@ public class JBarcodeBean extends JComponent implements java.io.Serializable, Ac
             FontMetrics fm = getFontMetrics(getFont());
             labelWidth = fm.stringWidth(encoded.barcodeLabelText);
 
-            for(int i = 0; i < encoded.elements.length; i++) {
-                barcodeWidth += encoded.elements[i].getWidth() * narrowestBarWidth;
-            }
+            barcodeWidth = encoded.getTotalWidth() * narrowestBarWidth / encoded.getNarrowWidth();
         } else if (!encodeError.equals("")) {
             // error message only
             FontMetrics fm = getFontMetrics(getFont());
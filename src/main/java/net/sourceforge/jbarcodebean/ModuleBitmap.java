@@ -0,0 +1,178 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details. 
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A {@link ModuleSink} that expands the bars and spaces of a barcode into a
+ * bitset with one bit per unit: bit <i>n</i> is set if unit <i>n</i>,
+ * counted from the left edge of the left margin, is part of a bar.  The
+ * bits are packed into longs in the layout of {@link BitSet#toLongArray}.
+ * A unit is the narrowest module unless {@link #getNarrowWidth} is greater
+ * than 1, so a row of the rendered barcode is the bitset with every bit
+ * repeated <tt>narrowestBarWidth / getNarrowWidth()</tt> times.
+ * <p>
+ * Two bitmaps are equal if they hold the same units, narrow width and
+ * bearer bars, which makes a bitmap a compact key for a symbol.  Call
+ * {@link #clear} before encoding the next barcode into the same bitmap.
+ * Instances are not thread-safe.
+ *
+ * @since 1.2.1
+ */
+public class ModuleBitmap implements ModuleSink {
+
+  private long[] words;
+  private int length;
+  private int narrowWidth = 1;
+  private int bearerBarWidth;
+
+  /** Creates a bitmap with room for 256 units. */
+  public ModuleBitmap() {
+    this(256);
+  }
+
+  /**
+   * Creates a bitmap with room for the given number of units.  The bitmap
+   * grows as required.
+   */
+  public ModuleBitmap(int capacity) {
+    words = new long[(capacity + 63) >>> 6];
+  }
+
+  public void begin(int narrowWidth, int bearerBarWidth) {
+    this.narrowWidth = narrowWidth;
+    this.bearerBarWidth = bearerBarWidth;
+  }
+
+  public void appendElement(int type, int width) {
+    int from = length;
+    int to = from + width;
+    if (to > words.length << 6) {
+      long[] grown = new long[Math.max(words.length * 2, (to + 63) >>> 6)];
+      System.arraycopy(words, 0, grown, 0, words.length);
+      words = grown;
+    }
+    if (type == BarcodeElement.TYPE_BAR && width > 0) {
+      int first = from >>> 6;
+      int last = (to - 1) >>> 6;
+      long firstMask = -1L << from;
+      long lastMask = -1L >>> -to;
+      if (first == last) {
+        words[first] |= firstMask & lastMask;
+      } else {
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+          words[i] = -1L;
+        }
+        words[last] |= lastMask;
+      }
+    }
+    length = to;
+  }
+
+  /**
+   * Empties the bitmap, keeping its capacity.
+   */
+  public void clear() {
+    Arrays.fill(words, 0, (length + 63) >>> 6, 0L);
+    length = 0;
+    narrowWidth = 1;
+    bearerBarWidth = 0;
+  }
+
+  /**
+   * Returns the number of units in the bitmap, including the margins.
+   */
+  public int getModuleCount() {
+    return length;
+  }
+
+  /**
+   * Returns the width of the narrowest module passed to {@link #begin}, in
+   * units, or 1 if <tt>begin</tt> has not been called.
+   */
+  public int getNarrowWidth() {
+    return narrowWidth;
+  }
+
+  /**
+   * Returns the width of the bearer bars passed to {@link #begin}, in
+   * units.  The bearer bars are not part of the bitmap.
+   */
+  public int getBearerBarWidth() {
+    return bearerBarWidth;
+  }
+
+  /**
+   * Returns <tt>true</tt> if the unit at <tt>index</tt> is part of a bar,
+   * <tt>false</tt> if it is part of a space.
+   */
+  public boolean isBar(int index) {
+    if (index >= length) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+    }
+    return (words[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Returns a copy of the bitmap as longs, holding
+   * <tt>(getModuleCount() + 63) / 64</tt> words.  Bits beyond the last unit
+   * are zero.
+   */
+  public long[] toLongArray() {
+    long[] copy = new long[(length + 63) >>> 6];
+    System.arraycopy(words, 0, copy, 0, copy.length);
+    return copy;
+  }
+
+  /**
+   * Returns a copy of the bitmap as a {@link BitSet}.  A BitSet does not
+   * record trailing spaces, so use {@link #getModuleCount} for the width.
+   */
+  public BitSet toBitSet() {
+    return BitSet.valueOf(toLongArray());
+  }
+
+  public boolean equals(Object o) {
+    if (!(o instanceof ModuleBitmap)) {
+      return false;
+    }
+    ModuleBitmap other = (ModuleBitmap) o;
+    if (length != other.length || narrowWidth != other.narrowWidth
+        || bearerBarWidth != other.bearerBarWidth) {
+      return false;
+    }
+    for (int i = (length + 63) >>> 6; --i >= 0; ) {
+      if (words[i] != other.words[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int hashCode() {
+    long h = (length * 31 + narrowWidth) * 31 + bearerBarWidth;
+    for (int i = (length + 63) >>> 6; --i >= 0; ) {
+      h = h * 31 + words[i];
+    }
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details. 
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean;
+
+/**
+ * A reusable {@link ModuleSink} that collects the bars and spaces of a
+ * barcode in a growable array.  Call {@link #clear} before encoding the next
+ * barcode into the same buffer.  Instances are not thread-safe.
+ *
+ * @since 1.2.1
+ */
+public class ModuleBuffer implements ModuleSink {
+
+  private byte[] widths;
+  private int count;
+  private int firstType;
+  private int narrowWidth = 1;
+  private int bearerBarWidth;
+
+  /** Creates a buffer with room for 128 elements. */
+  public ModuleBuffer() {
+    this(128);
+  }
+
+  /**
+   * Creates a buffer with room for the given number of elements.  The buffer
+   * grows as required.
+   */
+  public ModuleBuffer(int capacity) {
+    widths = new byte[capacity];
+  }
+
+  public void begin(int narrowWidth, int bearerBarWidth) {
+    this.narrowWidth = narrowWidth;
+    this.bearerBarWidth = bearerBarWidth;
+  }
+
+  /**
+   * Appends a bar or space.
+   *
+   * @throws IllegalArgumentException If <tt>width</tt> is not between 1 and
+   * 255.
+   */
+  public void appendElement(int type, int width) {
+    if (width < 1 || width > EncodedBarcode.MAX_WIDTH) {
+      throw new IllegalArgumentException("Element width out of range: " + width);
+    }
+    if (count == 0) {
+      firstType = type;
+    }
+    if (count == widths.length) {
+      byte[] grown = new byte[widths.length * 2 + 1];
+      System.arraycopy(widths, 0, grown, 0, count);
+      widths = grown;
+    }
+    widths[count++] = (byte) width;
+  }
+
+  /**
+   * Empties the buffer, keeping its capacity.
+   */
+  public void clear() {
+    count = 0;
+    narrowWidth = 1;
+    bearerBarWidth = 0;
+  }
+
+  /**
+   * Returns the number of bars and spaces in the buffer.
+   */
+  public int getElementCount() {
+    return count;
+  }
+
+  /**
+   * Returns the width of the element at <tt>index</tt>, in units.  See
+   * {@link #getNarrowWidth}.
+   */
+  public int getWidth(int index) {
+    if (index >= count) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+    }
+    return widths[index] & 0xFF;
+  }
+
+  /**
+   * Returns the type of the element at <tt>index</tt>, either
+   * {@link BarcodeElement#TYPE_BAR} or {@link BarcodeElement#TYPE_SPACE}.
+   */
+  public int getType(int index) {
+    if (index >= count) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+    }
+    if ((index & 1) == 0) {
+      return firstType;
+    }
+    return firstType == BarcodeElement.TYPE_BAR ? BarcodeElement.TYPE_SPACE : BarcodeElement.TYPE_BAR;
+  }
+
+  /**
+   * Returns the width of the narrowest module passed to {@link #begin}, in
+   * units, or 1 if <tt>begin</tt> has not been called.
+   */
+  public int getNarrowWidth() {
+    return narrowWidth;
+  }
+
+  /**
+   * Returns the width of the bearer bars passed to {@link #begin}, in units.
+   */
+  public int getBearerBarWidth() {
+    return bearerBarWidth;
+  }
+
+  /**
+   * Returns the sum of all element widths, in units.
+   */
+  public int getTotalWidth() {
+    int total = 0;
+    for (int i = 0; i < count; i++) {
+      total += widths[i] & 0xFF;
+    }
+    return total;
+  }
+
+  /**
+   * Copies the contents of the buffer into a new {@link EncodedBarcode}.
+   *
+   * @param barcodeLabelText The text caption of the barcode.
+   */
+  public EncodedBarcode toEncodedBarcode(String barcodeLabelText) {
+    byte[] copy = new byte[count];
+    System.arraycopy(widths, 0, copy, 0, count);
+    return new EncodedBarcode(copy, count > 0 ? firstType : BarcodeElement.TYPE_SPACE,
+        narrowWidth, bearerBarWidth, barcodeLabelText);
+  }
+}
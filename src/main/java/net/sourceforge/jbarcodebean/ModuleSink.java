@@ -0,0 +1,58 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details. 
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean;
+
+import net.sourceforge.jbarcodebean.model.AbstractBarcodeStrategy;
+
+/**
+ * Receives the bars and spaces of a barcode as they are encoded, as an
+ * alternative to building an {@link EncodedBarcode}.  See
+ * {@link AbstractBarcodeStrategy#encode(CharSequence, boolean, ModuleSink)}.
+ * <p>
+ * Widths are given in units.  A unit is the narrowest module width unless
+ * the barcode has a wide:narrow ratio such as 2.5:1, whose narrow elements
+ * are split into several units; the number of units in a narrow element is
+ * passed to {@link #begin}.
+ *
+ * @since 1.2.1
+ */
+public interface ModuleSink {
+
+  /**
+   * Called once before the first bar or space of a barcode, with the
+   * properties of the barcode that are not carried by its elements.
+   *
+   * @param narrowWidth The width of the narrowest module, in units.  See
+   * {@link EncodedBarcode#getNarrowWidth}.
+   * @param bearerBarWidth The width of the bearer bars that frame the
+   * barcode, in units, or 0 if it has none.  See
+   * {@link EncodedBarcode#getBearerBarWidth}.
+   */
+  public void begin(int narrowWidth, int bearerBarWidth);
+
+  /**
+   * Called once for each bar or space, from left to right, starting with the
+   * left margin and ending with the right margin.  Consecutive calls always
+   * alternate between bars and spaces.
+   *
+   * @param type {@link BarcodeElement#TYPE_BAR} or {@link BarcodeElement#TYPE_SPACE}.
+   * @param width The width of the element, in units.
+   */
+  public void appendElement(int type, int width);
+}
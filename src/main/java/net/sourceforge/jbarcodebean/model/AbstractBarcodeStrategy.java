@@ -18,9 +18,13 @@
  */
 package net.sourceforge.jbarcodebean.model;
 
-import net.sourceforge.jbarcodebean.BarcodeElement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import net.sourceforge.jbarcodebean.BarcodeException;
 import net.sourceforge.jbarcodebean.EncodedBarcode;
+import net.sourceforge.jbarcodebean.ModuleBuffer;
+import net.sourceforge.jbarcodebean.ModuleSink;
 
 /**
  * This abstract class, which implements the {@link BarcodeStrategy} interface,
@@ -30,6 +34,37 @@ import net.sourceforge.jbarcodebean.EncodedBarcode;
  */
 public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
 
+  /* The processing stages, as bits of the stage flags */
+  private static final int PREPROCESS = 1;
+  private static final int CHECKSUM = 2;
+  private static final int POSTPROCESS = 4;
+
+  /* Shifts of the stage bits in the stage flags */
+  private static final int BUFFER_DECLARED = 0;
+  private static final int STRING_FIRST = 3;
+
+  /** Stage flags by strategy class, see getStageFlags */
+  private static final ConcurrentMap<Class<?>, Integer> stageFlags =
+      new ConcurrentHashMap<Class<?>, Integer>();
+  /** Bitsets of the characters accepted by isLegalCharacter, by strategy class */
+  private static final ConcurrentMap<Class<?>, long[]> legalCharacters =
+      new ConcurrentHashMap<Class<?>, long[]>();
+
+  /**
+   * Lookup tables by the array returned by getCodes, shared by all the
+   * strategies that return the same array.  Arrays are compared by identity.
+   */
+  private static final ConcurrentMap<CharacterCode[], CodeTable> codeTables =
+      new ConcurrentHashMap<CharacterCode[], CodeTable>();
+  /**
+   * The most tables kept in each shared table map, so that a strategy whose
+   * getCodes returns a new array on every call cannot fill it.
+   */
+  static final int MAX_SHARED_TABLES = 64;
+
+  /** Lookup tables for the array returned by getCodes, looked up on first use. */
+  private transient CodeTable codeTable;
+
   /**
    * Subclasses implement this method to return an array of
    * {@link AbstractBarcodeStrategy.CharacterCode CharacterCode}
@@ -47,6 +82,11 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    * to encode, and return a String containing the text with the checksum
    * included.
    *
+   * Subclasses implement either this method or
+   * {@link #augmentWithChecksum(StringBuilder)}.  This implementation
+   * delegates to the buffer-based form if a subclass implements it, and
+   * otherwise returns the text unchanged.
+   *
    * @param text The text to encode (after preprocessing - see
    * {@link AbstractBarcodeStrategy#preprocess}).
    *
@@ -54,13 +94,44 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    * the checksum.  For barcode types that don't support a checksum, this would
    * simply be the text passed to the method.
    */
-  protected abstract String augmentWithChecksum(String text) throws BarcodeException;
+  protected String augmentWithChecksum(String text) throws BarcodeException {
+    if (!isBufferDeclared(CHECKSUM)) {
+      return text;
+    }
+    StringBuilder buffer = new StringBuilder(text);
+    augmentWithChecksum(buffer);
+    return buffer.toString();
+  }
+
+  /**
+   * Buffer-based form of {@link #augmentWithChecksum(String)}, which adds the
+   * checksum to the text in place.  Unless a subclass implements this form,
+   * this implementation delegates to the String form; otherwise it does
+   * nothing.
+   *
+   * @param text The text to encode (after preprocessing).
+   *
+   * @since 1.2.1
+   */
+  protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+    if (isBufferDeclared(CHECKSUM)) {
+      return;
+    }
+    String augmented = augmentWithChecksum(text.toString());
+    text.setLength(0);
+    text.append(augmented);
+  }
 
   /**
    * Subclasses implement this method to perform any preprocessing necessary on the
    * original text to encode.  The result of this method is the string that gets
    * passed to the {@link AbstractBarcodeStrategy#augmentWithChecksum} method.
    *
+   * Subclasses implement either this method or
+   * {@link #preprocess(CharSequence, StringBuilder)}.  This implementation
+   * delegates to the buffer-based form if a subclass implements it, and
+   * otherwise returns the text unchanged.
+   *
    * @param text The raw text to encode.
    *
    * @return The string after preprocessing. If no preprocessing is required,
@@ -70,7 +141,36 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    * a String containing illegal characters (characters that cannot be encoded in
    * this type of barcode).
    */
-  protected abstract String preprocess(String text) throws BarcodeException;
+  protected String preprocess(String text) throws BarcodeException {
+    if (!isBufferDeclared(PREPROCESS)) {
+      return text;
+    }
+    StringBuilder buffer = new StringBuilder(text.length());
+    preprocess(text, buffer);
+    return buffer.toString();
+  }
+
+  /**
+   * Buffer-based form of {@link #preprocess(String)}, which appends the
+   * preprocessed text to <tt>out</tt>.  Unless a subclass implements this
+   * form, this implementation delegates to the String form; otherwise it
+   * appends the text unchanged.
+   *
+   * @param text The raw text to encode.
+   * @param out The buffer receiving the preprocessed text.
+   *
+   * @throws BarcodeException Typically caused by passing in
+   * text containing illegal characters.
+   *
+   * @since 1.2.1
+   */
+  protected void preprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+    if (isBufferDeclared(PREPROCESS)) {
+      out.append(text);
+      return;
+    }
+    out.append(preprocess(text.toString()));
+  }
 
   /**
    * Subclasses must implement this method to return <tt>true</tt> or <tt>false</tt>
@@ -105,6 +205,57 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    */
   protected abstract byte getMarginWidth();
 
+  /**
+   * Returns the widths of any guard bars and spaces that appear between the
+   * left margin and the start sentinel, or <tt>null</tt> if there are none.
+   * Bars and spaces alternate, continuing from the margin, so the first
+   * width is a bar.  This implementation returns <tt>null</tt>.
+   *
+   * @since 1.2.1
+   */
+  protected byte[] getLeadingGuard() {
+    return null;
+  }
+
+  /**
+   * Returns the widths of any guard bars and spaces that appear between the
+   * stop sentinel and the right margin, or <tt>null</tt> if there are none.
+   * Bars and spaces alternate, continuing from the stop sentinel.  This
+   * implementation returns <tt>null</tt>.
+   *
+   * @since 1.2.1
+   */
+  protected byte[] getTrailingGuard() {
+    return null;
+  }
+
+  /**
+   * Returns the number of units in the narrowest module.  The widths
+   * returned by {@link #getCodes}, {@link #getMarginWidth} and the guards
+   * are in units, which are the narrowest module unless a strategy needs
+   * finer steps for its wide elements.  The value is passed to
+   * {@link ModuleSink#begin} and reported by
+   * {@link EncodedBarcode#getNarrowWidth}.  This implementation returns 1.
+   *
+   * @since 1.2.1
+   */
+  protected int getNarrowWidth() {
+    return 1;
+  }
+
+  /**
+   * Returns the width of the bearer bars that frame the barcode, in units,
+   * or 0 if there are none.  The
+   * bearer bars are drawn over the outer edge of the margins; they are
+   * passed to {@link ModuleSink#begin} and reported by
+   * {@link EncodedBarcode#getBearerBarWidth}.  This implementation returns 0.
+   *
+   * @since 1.2.1
+   */
+  protected int getBearerBarWidth() {
+    return 0;
+  }
+
   /**
    * Subclasses implement this method to return the text which appears
    * below the barcode.
@@ -119,13 +270,43 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    * Subclasses implement this method to perform any postprocessing required
    * to the text after including the checksum.
    *
+   * Subclasses implement either this method or
+   * {@link #postprocess(StringBuilder)}.  This implementation delegates to
+   * the buffer-based form if a subclass implements it, and otherwise
+   * returns the text unchanged.
+   *
    * @param text String to process (returned by
    * {@link AbstractBarcodeStrategy#augmentWithChecksum}).
    *
    * @return String after postprocessing.  If no postprocessing is required,
    * the String passed to the method is returned.
    */
-  protected abstract String postprocess(String text);
+  protected String postprocess(String text) {
+    if (!isBufferDeclared(POSTPROCESS)) {
+      return text;
+    }
+    StringBuilder buffer = new StringBuilder(text);
+    postprocess(buffer);
+    return buffer.toString();
+  }
+
+  /**
+   * Buffer-based form of {@link #postprocess(String)}, which postprocesses
+   * the text in place.  Unless a subclass implements this form, this
+   * implementation delegates to the String form; otherwise it does nothing.
+   *
+   * @param text The text after the checksum has been added.
+   *
+   * @since 1.2.1
+   */
+  protected void postprocess(StringBuilder text) {
+    if (isBufferDeclared(POSTPROCESS)) {
+      return;
+    }
+    String postprocessed = postprocess(text.toString());
+    text.setLength(0);
+    text.append(postprocessed);
+  }
 
   /**
    * This implementation carries out the following steps:
@@ -133,11 +314,14 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    * <li>Call {@link AbstractBarcodeStrategy#preprocess}</li>
    * <li>Call {@link AbstractBarcodeStrategy#augmentWithChecksum} to add in the checksum</li>
    * <li>Call {@link AbstractBarcodeStrategy#postprocess}</li>
-   * <li>Adds in the start and end sentinels</li>
-   * <li>Use the CharacterCode array returned by getCodes to encode the text into a barcode</li>
+   * <li>Use the CharacterCode array returned by getCodes to encode the text,
+   * framed by the start and end sentinels, into a barcode</li>
    * <li>Insert left and right margins</li>
    * <li>Return EncodedBarcode object</li>
    * </ul>
+   * The stages work on a per-thread buffer and each character is looked up
+   * once; the bars and spaces are collected in a reusable buffer and copied
+   * into the EncodedBarcode.
    *
    * @param textToEncode The raw text to encode.
    * @param checked True if a checksum is to be calculated, False if not.
@@ -150,67 +334,315 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    * this type of barcode).
    */
   public EncodedBarcode encode(String textToEncode, boolean checked) throws BarcodeException {
+    ModuleWriter writer = ModuleWriter.acquire();
+    try {
+      ModuleBuffer modules = writer.modules;
+      modules.clear();
+      encode(textToEncode, checked, writer, modules);
+      return modules.toEncodedBarcode(getBarcodeLabelText(textToEncode));
+    } finally {
+      writer.release();
+    }
+  }
 
-    String text;
+  /**
+   * Encodes some text into a barcode, passing the bars and spaces to
+   * <tt>sink</tt> as they are produced instead of building an
+   * {@link EncodedBarcode}.  The steps are the same as for
+   * {@link #encode(String, boolean)}.  The text is read through the
+   * CharSequence interface and never converted into a String, so strategies
+   * that implement the buffer-based stages encode without allocating.  If an
+   * exception is thrown, the sink may already have received part of the
+   * barcode.
+   *
+   * @param textToEncode The raw text to encode, for example a field read into
+   * a StringBuilder or a CharBuffer.
+   * @param checked True if a checksum is to be calculated, False if not.
+   * @param sink Receives the bars and spaces, including the margins.
+   *
+   * @throws BarcodeException Typically caused by passing in
+   * a String containing illegal characters (characters that cannot be encoded in
+   * this type of barcode).
+   *
+   * @since 1.2.1
+   */
+  public void encode(CharSequence textToEncode, boolean checked, ModuleSink sink) throws BarcodeException {
+    ModuleWriter writer = ModuleWriter.acquire();
+    try {
+      encode(textToEncode, checked, writer, sink);
+    } finally {
+      writer.release();
+    }
+  }
 
-    text = preprocess(textToEncode);
-    text = checked ? augmentWithChecksum(text) : text;
-    text = postprocess(text);
+  /**
+   * Checks whether some text can be encoded, without encoding it.  Each
+   * character is looked up in a bitset of the characters this type of
+   * barcode accepts, so validation allocates nothing.
+   *
+   * @param text The raw text to check.
+   *
+   * @return -1 if the text can be encoded, otherwise the index of the first
+   * character that cannot be encoded.  If the text is too short, the
+   * length of the text is returned.
+   *
+   * @since 1.2.1
+   */
+  public int validate(CharSequence text) {
+    return indexOfIllegalCharacter(text, 0, text.length());
+  }
 
-    // Simple to check to ensure start and end characters are not present in the
-    // text to be encoded.
-    if (((getStartSentinel() != 0xffff && text.indexOf(getStartSentinel()) >= 0)) ||
-        (text.indexOf(getStopSentinel())) >= 0) {
-      throw new BarcodeException("Invalid character in barcode");
+  /**
+   * Returns <tt>true</tt> if {@link #validate} accepts <tt>text</tt>.
+   *
+   * @since 1.2.1
+   */
+  public boolean canEncode(CharSequence text) {
+    return validate(text) < 0;
+  }
+
+  /**
+   * Returns the index of the first character in the range [from, to) of
+   * <tt>text</tt> that is rejected by {@link #isLegalCharacter}, or -1 if
+   * there is none.
+   *
+   * @since 1.2.1
+   */
+  protected final int indexOfIllegalCharacter(CharSequence text, int from, int to) {
+    long[] legal = getLegalCharacters();
+    int limit = legal.length << 6;
+    for (int i = from; i < to; i++) {
+      char ch = text.charAt(i);
+      if (ch >= limit || (legal[ch >>> 6] & (1L << ch)) == 0) {
+        return i;
+      }
     }
+    return -1;
+  }
+
+  /**
+   * Determines whether a character may appear in the raw text passed to
+   * {@link #encode(String, boolean)}.  The result is evaluated once for
+   * every character and kept in a bitset shared by all the instances of
+   * the strategy class, so it must depend only on the class, not on the
+   * state of an instance.  This implementation accepts the characters of
+   * {@link #getCodes} other than the start and stop sentinels, which suits
+   * strategies whose preprocessing does not translate the text.
+   *
+   * @since 1.2.1
+   */
+  protected boolean isLegalCharacter(char ch) {
+    return getCodeTable().get(ch) != null && ch != getStartSentinel() && ch != getStopSentinel();
+  }
 
-    if (getStartSentinel() != 0xffff) {
-      text = getStartSentinel() + text;
+  private long[] getLegalCharacters() {
+    long[] legal = legalCharacters.get(getClass());
+    if (legal == null) {
+      long[] bits = new long[(Character.MAX_VALUE + 1) >>> 6];
+      int used = 0;
+      for (int ch = 0; ch <= Character.MAX_VALUE; ch++) {
+        if (isLegalCharacter((char) ch)) {
+          bits[ch >>> 6] |= 1L << ch;
+          used = (ch >>> 6) + 1;
+        }
+      }
+      legal = new long[used];
+      System.arraycopy(bits, 0, legal, 0, used);
+      legalCharacters.putIfAbsent(getClass(), legal);
     }
+    return legal;
+  }
 
-    text += getStopSentinel();
+  /**
+   * Runs the encoding steps shared by both public forms of <tt>encode</tt>,
+   * writing the result to <tt>sink</tt>.
+   */
+  void encode(CharSequence textToEncode, boolean checked, ModuleWriter writer, ModuleSink sink) throws BarcodeException {
+    StringBuilder text = writer.text;
+    runPreprocess(textToEncode, text);
+    if (checked) {
+      runAugmentWithChecksum(text);
+    }
+    runPostprocess(text);
+    writer.begin(sink, this);
+    write(text, writer);
+    writer.finish();
+  }
 
-    int size = computeSize(text);
-    BarcodeElement[] elements = new BarcodeElement[size];
+  /**
+   * Runs the preprocess stage through the form of the method implemented by
+   * the most derived class.
+   */
+  final void runPreprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+    if (isStringFirst(PREPROCESS)) {
+      out.append(preprocess(text.toString()));
+    } else {
+      preprocess(text, out);
+    }
+  }
 
-    // Margin
-    elements[0] = new BarcodeElement(BarcodeElement.TYPE_SPACE, getMarginWidth());
+  /**
+   * Runs the checksum stage through the form of the method implemented by
+   * the most derived class.
+   */
+  final void runAugmentWithChecksum(StringBuilder text) throws BarcodeException {
+    if (isStringFirst(CHECKSUM)) {
+      String augmented = augmentWithChecksum(text.toString());
+      text.setLength(0);
+      text.append(augmented);
+    } else {
+      augmentWithChecksum(text);
+    }
+  }
 
-    int len = text.length();
-    int j = 1;
-    for(int i = 0; i < len; i++) {
-      char ch = text.charAt(i);
-      CharacterCode cc = getCharacterCode(ch);
-      if (cc == null) {
-        throw new BarcodeException("Invalid character in barcode");
-      }
-      for (int k = 0; k < cc.widths.length; k++) {
-        int width = cc.widths[k];
-        int type  = ((j % 2) == 0) ? BarcodeElement.TYPE_SPACE : BarcodeElement.TYPE_BAR;
-        elements[j] = new BarcodeElement(type, width);
-        if (isInterleaved() && ch != getStartSentinel() && ch != getStopSentinel()) {
-          j += 2;
-        } else {
-          j++;
-        }
+  /**
+   * Runs the postprocess stage through the form of the method implemented by
+   * the most derived class.
+   */
+  final void runPostprocess(StringBuilder text) {
+    if (isStringFirst(POSTPROCESS)) {
+      String postprocessed = postprocess(text.toString());
+      text.setLength(0);
+      text.append(postprocessed);
+    } else {
+      postprocess(text);
+    }
+  }
+
+  /**
+   * Returns <tt>true</tt> if a subclass implements the buffer-based form of
+   * <tt>stage</tt>.
+   */
+  private boolean isBufferDeclared(int stage) {
+    return (getStageFlags() & stage << BUFFER_DECLARED) != 0;
+  }
+
+  /**
+   * Returns <tt>true</tt> if the String form of <tt>stage</tt> is
+   * implemented by a class derived from the one implementing the
+   * buffer-based form, and so overrides it.
+   */
+  private boolean isStringFirst(int stage) {
+    return (getStageFlags() & stage << STRING_FIRST) != 0;
+  }
+
+  /**
+   * Returns the flags telling which forms of the processing stages the
+   * class of this strategy implements, determining them on first use.
+   * The default implementations of the two forms of a stage delegate to
+   * each other only while no subclass implements the buffer-based form,
+   * so they never call each other in a loop.
+   */
+  private int getStageFlags() {
+    Class<?> type = getClass();
+    Integer flags = stageFlags.get(type);
+    if (flags == null) {
+      int result = 0;
+      result |= getStageFlags(type, PREPROCESS, "preprocess", new Class<?>[] {String.class},
+          new Class<?>[] {CharSequence.class, StringBuilder.class});
+      result |= getStageFlags(type, CHECKSUM, "augmentWithChecksum", new Class<?>[] {String.class},
+          new Class<?>[] {StringBuilder.class});
+      result |= getStageFlags(type, POSTPROCESS, "postprocess", new Class<?>[] {String.class},
+          new Class<?>[] {StringBuilder.class});
+      flags = Integer.valueOf(result);
+      stageFlags.put(type, flags);
+    }
+    return flags.intValue();
+  }
+
+  private static int getStageFlags(Class<?> type, int stage, String name,
+      Class<?>[] stringForm, Class<?>[] bufferForm) {
+    Class<?> stringClass = getDeclaringClass(type, name, stringForm);
+    Class<?> bufferClass = getDeclaringClass(type, name, bufferForm);
+    int flags = 0;
+    if (bufferClass != AbstractBarcodeStrategy.class) {
+      flags |= stage << BUFFER_DECLARED;
+    }
+    if (stringClass != bufferClass && bufferClass.isAssignableFrom(stringClass)) {
+      flags |= stage << STRING_FIRST;
+    }
+    return flags;
+  }
+
+  /**
+   * Returns <tt>true</tt> if a class derived from <tt>base</tt> overrides the
+   * method of this strategy with the given name and parameter types.
+   */
+  final boolean isOverriddenBelow(Class<?> base, String name, Class<?>... parameterTypes) {
+    Class<?> declaring = getDeclaringClass(getClass(), name, parameterTypes);
+    return declaring != base && base.isAssignableFrom(declaring);
+  }
+
+  /**
+   * Returns the most derived class, from <tt>type</tt> up to
+   * AbstractBarcodeStrategy, that declares the method with the given name
+   * and parameter types.  If the classes cannot be inspected, the method is
+   * assumed not to be overridden.
+   */
+  private static Class<?> getDeclaringClass(Class<?> type, String name, Class<?>... parameterTypes) {
+    for (Class<?> c = type; c != AbstractBarcodeStrategy.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(name, parameterTypes);
+        return c;
+      } catch (NoSuchMethodException e) {
+        // Look in the superclass.
+      } catch (SecurityException e) {
+        break;
       }
-      if (isInterleaved() && ch != getStartSentinel() && ch != getStopSentinel()) {
-        if (i % 2 == 1) {
-          j -= (cc.widths.length * 2 - 1);
-        } else {
-          j -= 1;
+    }
+    return AbstractBarcodeStrategy.class;
+  }
+
+  /**
+   * Writes the margins, sentinels and characters of the fully processed
+   * <tt>text</tt>, resolving each character's code once.
+   */
+  void write(CharSequence text, ModuleWriter writer) throws BarcodeException {
+    char start = getStartSentinel();
+    char stop = getStopSentinel();
+    boolean interleaved = isInterleaved();
+
+    writer.appendSpace(getMarginWidth());
+    appendGuard(writer, getLeadingGuard());
+    if (start != 0xffff) {
+      writer.append(getCodeTable().get(start).widths);
+    }
+
+    int len = text.length();
+    for (int i = 0; i < len; i++) {
+      CharacterCode cc = getDataCharacterCode(text.charAt(i), start, stop);
+      if (interleaved) {
+        if (++i == len) {
+          throw new BarcodeException("Odd number of characters in interleaved barcode");
         }
+        CharacterCode spaces = getDataCharacterCode(text.charAt(i), start, stop);
+        writer.appendInterleaved(cc.widths, spaces.widths);
+      } else {
+        writer.append(cc.widths);
       }
     }
 
-    elements[j] = new BarcodeElement(BarcodeElement.TYPE_SPACE, getMarginWidth());
-    j++;
+    writer.append(getCodeTable().get(stop).widths);
+    appendGuard(writer, getTrailingGuard());
+    writer.appendSpace(getMarginWidth());
+  }
 
-    if (j != size) {
-      throw new BarcodeException("Unexpected barcode size");
+  /**
+   * Appends the widths returned by getLeadingGuard or getTrailingGuard.
+   */
+  static void appendGuard(ModuleWriter writer, byte[] guard) {
+    if (guard != null) {
+      writer.append(guard);
     }
+  }
 
-    return new EncodedBarcode(elements, getBarcodeLabelText(textToEncode));
+  private CharacterCode getDataCharacterCode(char ch, char start, char stop) throws BarcodeException {
+    CharacterCode cc = getCodeTable().get(ch);
+    // Start and end characters must not be present in the text to be encoded.
+    if (cc == null || ch == start || ch == stop) {
+      throw new BarcodeException("Invalid character in barcode");
+    }
+    return cc;
   }
 
   /**
@@ -224,7 +656,11 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    *
    * @throws BarcodeException Typically
    * occurs if attempting to encode invalid characters.
+   *
+   * @deprecated {@link #encode(String, boolean)} no longer computes the size
+   * in advance.
    */
+  @Deprecated
   protected int computeSize(String text) throws BarcodeException {
     int size = 0;
     int l = text.length();
@@ -237,30 +673,33 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
       size = size + cc.widths.length;
     }
     size += 2;  // Margins
+    byte[] guard = getLeadingGuard();
+    if (guard != null) {
+      size += guard.length;
+    }
+    guard = getTrailingGuard();
+    if (guard != null) {
+      size += guard.length;
+    }
     return size;
   }
 
   /**
-   * Looks for the specified character to encode in the CharacterCode array
+   * Looks up the specified character to encode in the CharacterCode array
    * returned by the {@link AbstractBarcodeStrategy#getCodes} method.
    *
    * @param character The character to encode.
    *
    * @return CharacterCode The element in the CharacterCode array (returned by
-   * getCodes) that corresponds to the character passed to the method.
+   * getCodes) that corresponds to the character passed to the method, or
+   * <tt>null</tt> if the character cannot be encoded.
    */
   protected CharacterCode getCharacterCode(char character) {
-    CharacterCode[] codes = getCodes();
-    for (int i = 0; i < codes.length; i ++) {
-      if (codes[i].character == character) {
-        return codes[i];
-      }
-    }
-    return null;
+    return getCodeTable().get(character);
   }
 
   /**
-   * Looks for an entry in the CharacterCode array
+   * Looks up an entry in the CharacterCode array
    * returned by the {@link AbstractBarcodeStrategy#getCodes} method,
    * by its <tt>check</tt> attribute.
    *
@@ -268,16 +707,36 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
    *
    * @return CharacterCode The element in the CharacterCode array (returned by
    * getCodes) that corresponds to the character whose check attribute was passed
-   * to the method.
+   * to the method, or <tt>null</tt> if there is none.
    */
   protected CharacterCode getCharacterCode(int check) {
+    return getCodeTable().get(check);
+  }
+
+  /**
+   * Returns the lookup tables for the array currently returned by
+   * {@link AbstractBarcodeStrategy#getCodes}.  The tables of an array are
+   * built once and shared by every instance that returns it; each instance
+   * keeps the tables it last used.  The tables are immutable, so an
+   * unsynchronized race merely builds them twice.
+   */
+  CodeTable getCodeTable() {
     CharacterCode[] codes = getCodes();
-    for (int i = 0; i < codes.length; i ++) {
-      if (codes[i].check == check) {
-        return codes[i];
+    CodeTable table = codeTable;
+    if (table == null || table.codes != codes) {
+      table = codeTables.get(codes);
+      if (table == null) {
+        table = new CodeTable(codes);
+        if (codeTables.size() < MAX_SHARED_TABLES) {
+          CodeTable shared = codeTables.putIfAbsent(codes, table);
+          if (shared != null) {
+            table = shared;
+          }
+        }
       }
+      codeTable = table;
     }
-    return null;
+    return table;
   }
 
   /**
@@ -299,7 +758,44 @@ public abstract class AbstractBarcodeStrategy implements BarcodeStrategy {
       this.check = check;
     }
   }
-}
 
+  /**
+   * Direct-indexed lookup tables over a CharacterCode array, one indexed by
+   * character and one by check value.  Where several entries share a
+   * character or check value, the first one in the array wins.
+   */
+  static final class CodeTable {
+
+    /** The array the tables were built from */
+    final CharacterCode[] codes;
+    private final CharacterCode[] byCharacter;
+    private final CharacterCode[] byCheck;
+
+    CodeTable(CharacterCode[] codes) {
+      int maxCharacter = -1;
+      int maxCheck = -1;
+      for (int i = 0; i < codes.length; i++) {
+        maxCharacter = Math.max(maxCharacter, codes[i].character);
+        maxCheck = Math.max(maxCheck, codes[i].check);
+      }
+      this.codes = codes;
+      this.byCharacter = new CharacterCode[maxCharacter + 1];
+      this.byCheck = new CharacterCode[maxCheck + 1];
+      for (int i = codes.length - 1; i >= 0; i--) {
+        CharacterCode cc = codes[i];
+        byCharacter[cc.character] = cc;
+        if (cc.check >= 0) {
+          byCheck[cc.check] = cc;
+        }
+      }
+    }
 
+    CharacterCode get(char character) {
+      return character < byCharacter.length ? byCharacter[character] : null;
+    }
 
+    CharacterCode get(int check) {
+      return check >= 0 && check < byCheck.length ? byCheck[check] : null;
+    }
+  }
+}
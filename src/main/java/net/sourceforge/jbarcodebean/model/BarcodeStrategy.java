@@ -25,6 +25,9 @@ import net.sourceforge.jbarcodebean.EncodedBarcode;
  * Interface which defines the barcode strategy for any
  * given type of barcode.  Classes that implement this interface exist for each
  * of the barcode types such as Code39, Interleaved25, etc.
+ * <p>
+ * The strategies in this package keep no state between calls to
+ * {@link #encode}, so one instance can be shared by any number of threads.
  */
 public interface BarcodeStrategy {
 
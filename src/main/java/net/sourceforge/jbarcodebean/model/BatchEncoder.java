@@ -0,0 +1,199 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+/**
+ * Encodes many texts with one {@link BarcodeStrategy}, spreading the work
+ * over a fork/join pool.  Results are returned in input order, and a text
+ * that cannot be encoded is reported in the {@link Result} without
+ * aborting the rest of the batch.  The strategy instance is shared by all
+ * worker threads, so it must not keep per-encode state in its fields.
+ *
+ * @since 1.2.1
+ */
+public class BatchEncoder {
+
+  /** Texts encoded by one task before it stops splitting. */
+  private static final int MIN_TASK_SIZE = 64;
+
+  private final BarcodeStrategy strategy;
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a batch encoder that runs on the common fork/join pool, which is
+   * sized to the number of available processors.
+   *
+   * @param strategy The strategy used for every text in a batch.
+   */
+  public BatchEncoder(BarcodeStrategy strategy) {
+    this(strategy, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a batch encoder that runs on the given pool.
+   *
+   * @param strategy The strategy used for every text in a batch.
+   * @param pool The pool the batch is split across.
+   */
+  public BatchEncoder(BarcodeStrategy strategy, ForkJoinPool pool) {
+    if (strategy == null || pool == null) {
+      throw new NullPointerException();
+    }
+    this.strategy = strategy;
+    this.pool = pool;
+  }
+
+  /**
+   * Encodes every text in <tt>texts</tt>.
+   *
+   * @param texts The raw texts to encode.
+   * @param checked <tt>true</tt> if a checksum is to be calculated, <tt>false</tt> if not.
+   *
+   * @return The barcodes and failures, in the order of <tt>texts</tt>.
+   */
+  public Result encode(List<String> texts, boolean checked) {
+    return encode(texts.toArray(new String[texts.size()]), checked);
+  }
+
+  /**
+   * Encodes every text in <tt>texts</tt>.
+   *
+   * @param texts The raw texts to encode.
+   * @param checked <tt>true</tt> if a checksum is to be calculated, <tt>false</tt> if not.
+   *
+   * @return The barcodes and failures, in the order of <tt>texts</tt>.
+   */
+  public Result encode(String[] texts, boolean checked) {
+    Result result = new Result(texts.length);
+    int threshold = Math.max(MIN_TASK_SIZE, texts.length / (pool.getParallelism() * 4));
+    pool.invoke(new EncodeTask(texts, checked, result, 0, texts.length, threshold));
+    return result;
+  }
+
+  private void encode(String[] texts, boolean checked, Result result, int index) {
+    try {
+      if (texts[index] == null) {
+        throw new BarcodeException("No text to encode");
+      }
+      result.barcodes[index] = strategy.encode(texts[index], checked);
+    } catch (BarcodeException e) {
+      result.failures[index] = e;
+    } catch (RuntimeException e) {
+      // Strategies may fail on malformed text with unchecked exceptions;
+      // report them like any other failure.
+      BarcodeException failure = new BarcodeException(e.toString());
+      failure.initCause(e);
+      result.failures[index] = failure;
+    }
+  }
+
+  /**
+   * Encodes the range [from, to) of a batch, splitting it in half until it
+   * is no larger than the threshold.
+   */
+  private class EncodeTask extends RecursiveAction {
+
+    private final String[] texts;
+    private final boolean checked;
+    private final Result result;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    EncodeTask(String[] texts, boolean checked, Result result, int from, int to, int threshold) {
+      this.texts = texts;
+      this.checked = checked;
+      this.result = result;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    protected void compute() {
+      if (to - from <= threshold) {
+        for (int i = from; i < to; i++) {
+          encode(texts, checked, result, i);
+        }
+      } else {
+        int middle = (from + to) >>> 1;
+        invokeAll(new EncodeTask(texts, checked, result, from, middle, threshold),
+            new EncodeTask(texts, checked, result, middle, to, threshold));
+      }
+    }
+  }
+
+  /**
+   * The outcome of a batch.  For each input position there is either a
+   * barcode or the exception that prevented it from being encoded.
+   */
+  public static class Result {
+
+    private final EncodedBarcode[] barcodes;
+    private final BarcodeException[] failures;
+
+    Result(int size) {
+      barcodes = new EncodedBarcode[size];
+      failures = new BarcodeException[size];
+    }
+
+    /** Returns the number of texts in the batch. */
+    public int size() {
+      return barcodes.length;
+    }
+
+    /** Returns <tt>true</tt> if the text at <tt>index</tt> was encoded. */
+    public boolean isEncoded(int index) {
+      return barcodes[index] != null;
+    }
+
+    /**
+     * Returns the barcode for the text at <tt>index</tt>, or <tt>null</tt>
+     * if that text could not be encoded.
+     */
+    public EncodedBarcode getBarcode(int index) {
+      return barcodes[index];
+    }
+
+    /**
+     * Returns the reason the text at <tt>index</tt> could not be encoded, or
+     * <tt>null</tt> if it was encoded.
+     */
+    public BarcodeException getFailure(int index) {
+      return failures[index];
+    }
+
+    /** Returns the number of texts that could not be encoded. */
+    public int getFailureCount() {
+      int count = 0;
+      for (int i = 0; i < failures.length; i++) {
+        if (failures[i] != null) {
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+}
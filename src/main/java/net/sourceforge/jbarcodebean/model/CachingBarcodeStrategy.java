@@ -0,0 +1,94 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+/**
+ * A strategy that answers {@link #encode} from an {@link EncodedBarcodeCache}
+ * and delegates to another strategy on a miss.  Each call returns its own
+ * copy of the cached barcode.
+ * <p>
+ * The cache is not serialized: a deserialized strategy starts with an empty
+ * cache of its own, with the same maximum size and expiry.
+ *
+ * @since 1.2.1
+ */
+public class CachingBarcodeStrategy implements BarcodeStrategy, java.io.Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final BarcodeStrategy strategy;
+  private transient EncodedBarcodeCache cache;
+  private final int maximumSize;
+  private final long timeToLive;
+
+  /**
+   * Creates a caching strategy with its own cache of
+   * <tt>maximumSize</tt> barcodes.
+   */
+  public CachingBarcodeStrategy(BarcodeStrategy strategy, int maximumSize) {
+    this(strategy, new EncodedBarcodeCache(maximumSize));
+  }
+
+  /**
+   * Creates a caching strategy using the given cache, which may be shared
+   * with other caching strategies.
+   */
+  public CachingBarcodeStrategy(BarcodeStrategy strategy, EncodedBarcodeCache cache) {
+    if (strategy == null || cache == null) {
+      throw new NullPointerException();
+    }
+    this.strategy = strategy;
+    this.cache = cache;
+    this.maximumSize = cache.getMaximumSize();
+    this.timeToLive = cache.getTimeToLive(TimeUnit.NANOSECONDS);
+  }
+
+  public EncodedBarcode encode(String text, boolean checked) throws BarcodeException {
+    return cache.encode(strategy, text, checked);
+  }
+
+  public int requiresChecksum() {
+    return strategy.requiresChecksum();
+  }
+
+  /** Returns the strategy that encodes on a cache miss. */
+  public BarcodeStrategy getStrategy() {
+    return strategy;
+  }
+
+  /** Returns the cache used by this strategy. */
+  public EncodedBarcodeCache getCache() {
+    return cache;
+  }
+
+  /**
+   * Creates an empty cache in place of the one that was not serialized.
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    cache = new EncodedBarcodeCache(maximumSize, timeToLive, TimeUnit.NANOSECONDS);
+  }
+}
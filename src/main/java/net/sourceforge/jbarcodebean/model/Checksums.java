@@ -0,0 +1,625 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+/**
+ * The check digit and check character calculations of the bundled barcode
+ * types, usable without encoding a barcode.  Every method is a single pass
+ * over its input and allocates nothing; invalid input is reported by a
+ * return value of -1 instead of an exception, so that large volumes of data
+ * can be checked cheaply.
+ * <p>
+ * Each calculation accepts a CharSequence, a range of a CharSequence and a
+ * range of a char array; those over digits also accept a long.  The
+ * calculations for the other barcode types return check values, which
+ * index the corresponding <tt>*_CHARACTERS</tt> String.  Code 128 is
+ * calculated from symbol values only, as its check value depends on the
+ * code sets chosen for the text.
+ *
+ * @since 1.2.1
+ */
+public final class Checksums {
+
+  /** The Code 39 characters, indexed by check value */
+  public static final String CODE_39_CHARACTERS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ-. $/+%";
+
+  /**
+   * The Code 93 characters, indexed by check value.  The last four are the
+   * shift characters ($), (%), (/) and (+), which Code 93 represents as
+   * {@link Code93#SHIFT_DOLLAR} to {@link Code93#SHIFT_PLUS}.
+   */
+  public static final String CODE_93_CHARACTERS = CODE_39_CHARACTERS
+      + Code93.SHIFT_DOLLAR + Code93.SHIFT_PERCENT + Code93.SHIFT_SLASH + Code93.SHIFT_PLUS;
+
+  /** The Code 11 characters, indexed by check value */
+  public static final String CODE_11_CHARACTERS = "0123456789-";
+
+  /* Check values indexed by character; -1 for characters outside the alphabet */
+  private static final byte[] code39Values = valueTable(CODE_39_CHARACTERS);
+  private static final byte[] code93Values = valueTable(CODE_93_CHARACTERS);
+  private static final byte[] code11Values = valueTable(CODE_11_CHARACTERS);
+
+  private Checksums() {
+  }
+
+  private static byte[] valueTable(String characters) {
+    char max = 0;
+    for (int i = 0; i < characters.length(); i++) {
+      max = (char) Math.max(max, characters.charAt(i));
+    }
+    byte[] values = new byte[max + 1];
+    java.util.Arrays.fill(values, (byte) -1);
+    for (int i = 0; i < characters.length(); i++) {
+      values[characters.charAt(i)] = (byte) i;
+    }
+    return values;
+  }
+
+  private static int valueOf(byte[] values, char c) {
+    return c < values.length ? values[c] : -1;
+  }
+
+  /**
+   * Returns the GS1 mod 10 check digit of <tt>digits</tt>, as used by EAN,
+   * UPC, ITF-14 and Interleaved Code 2 of 5: the digits are weighted 3 and 1
+   * alternately, starting with 3 at the rightmost digit.
+   *
+   * @return The check digit, or -1 if <tt>digits</tt> contains a character
+   * that is not a digit.
+   */
+  public static int mod10(CharSequence digits) {
+    return mod10(digits, 0, digits.length());
+  }
+
+  /**
+   * Returns the GS1 mod 10 check digit of the characters in the range
+   * [from, to) of <tt>digits</tt>.
+   *
+   * @see #mod10(CharSequence)
+   */
+  public static int mod10(CharSequence digits, int from, int to) {
+    int total = 0;
+    int weight = 3;
+    for (int i = to - 1; i >= from; i--) {
+      int digit = digits.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      total += digit * weight;
+      weight = 4 - weight;
+    }
+    return (10 - total % 10) % 10;
+  }
+
+  /**
+   * Returns the GS1 mod 10 check digit of <tt>length</tt> characters of
+   * <tt>digits</tt> starting at <tt>offset</tt>.
+   *
+   * @see #mod10(CharSequence)
+   */
+  public static int mod10(char[] digits, int offset, int length) {
+    int total = 0;
+    int weight = 3;
+    for (int i = offset + length - 1; i >= offset; i--) {
+      int digit = digits[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      total += digit * weight;
+      weight = 4 - weight;
+    }
+    return (10 - total % 10) % 10;
+  }
+
+  /**
+   * Returns the GS1 mod 10 check digit of the decimal digits of
+   * <tt>value</tt>.  Leading zeros do not change the check digit.
+   *
+   * @return The check digit, or -1 if <tt>value</tt> is negative.
+   */
+  public static int mod10(long value) {
+    if (value < 0) {
+      return -1;
+    }
+    int total = 0;
+    int weight = 3;
+    for (; value != 0; value /= 10) {
+      total += (int) (value % 10) * weight;
+      weight = 4 - weight;
+    }
+    return (10 - total % 10) % 10;
+  }
+
+  /**
+   * Returns <tt>true</tt> if the last character of <tt>digits</tt> is the
+   * GS1 mod 10 check digit of the characters before it.
+   */
+  public static boolean isValidMod10(CharSequence digits) {
+    int len = digits.length();
+    return len > 1 && mod10(digits, 0, len - 1) == digits.charAt(len - 1) - '0';
+  }
+
+  /**
+   * Returns the Luhn mod 10 check digit of <tt>digits</tt>, as used by MSI:
+   * the rightmost digit and every second digit before it are doubled, and
+   * the digits of each product are summed.
+   *
+   * @return The check digit, or -1 if <tt>digits</tt> contains a character
+   * that is not a digit.
+   */
+  public static int luhn(CharSequence digits) {
+    return luhn(digits, 0, digits.length());
+  }
+
+  /**
+   * Returns the Luhn mod 10 check digit of the characters in the range
+   * [from, to) of <tt>digits</tt>.
+   *
+   * @see #luhn(CharSequence)
+   */
+  public static int luhn(CharSequence digits, int from, int to) {
+    int total = 0;
+    boolean doubled = true;
+    for (int i = to - 1; i >= from; i--) {
+      int digit = digits.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      total += doubled ? luhnDouble(digit) : digit;
+      doubled = !doubled;
+    }
+    return (10 - total % 10) % 10;
+  }
+
+  /**
+   * Returns the Luhn mod 10 check digit of <tt>length</tt> characters of
+   * <tt>digits</tt> starting at <tt>offset</tt>.
+   *
+   * @see #luhn(CharSequence)
+   */
+  public static int luhn(char[] digits, int offset, int length) {
+    int total = 0;
+    boolean doubled = true;
+    for (int i = offset + length - 1; i >= offset; i--) {
+      int digit = digits[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      total += doubled ? luhnDouble(digit) : digit;
+      doubled = !doubled;
+    }
+    return (10 - total % 10) % 10;
+  }
+
+  /**
+   * Returns the Luhn mod 10 check digit of the decimal digits of
+   * <tt>value</tt>.
+   *
+   * @return The check digit, or -1 if <tt>value</tt> is negative.
+   */
+  public static int luhn(long value) {
+    if (value < 0) {
+      return -1;
+    }
+    int total = 0;
+    boolean doubled = true;
+    for (; value != 0; value /= 10) {
+      int digit = (int) (value % 10);
+      total += doubled ? luhnDouble(digit) : digit;
+      doubled = !doubled;
+    }
+    return (10 - total % 10) % 10;
+  }
+
+  /**
+   * Returns <tt>true</tt> if the last character of <tt>digits</tt> is the
+   * Luhn mod 10 check digit of the characters before it.
+   */
+  public static boolean isValidLuhn(CharSequence digits) {
+    int len = digits.length();
+    return len > 1 && luhn(digits, 0, len - 1) == digits.charAt(len - 1) - '0';
+  }
+
+  /**
+   * Returns the sum of the digits of twice <tt>digit</tt>.
+   */
+  private static int luhnDouble(int digit) {
+    digit *= 2;
+    return digit > 9 ? digit - 9 : digit;
+  }
+
+  /**
+   * Returns the IBM mod 11 check value of <tt>digits</tt>, as used by MSI:
+   * the digits are weighted 2, 3, 4, 5, 6, 7, 2, 3, ... from the right.
+   *
+   * @return The check value, from 0 to 10, or -1 if <tt>digits</tt>
+   * contains a character that is not a digit.
+   */
+  public static int mod11(CharSequence digits) {
+    return mod11(digits, 0, digits.length());
+  }
+
+  /**
+   * Returns the IBM mod 11 check value of the characters in the range
+   * [from, to) of <tt>digits</tt>.
+   *
+   * @see #mod11(CharSequence)
+   */
+  public static int mod11(CharSequence digits, int from, int to) {
+    int total = 0;
+    int weight = 2;
+    for (int i = to - 1; i >= from; i--) {
+      int digit = digits.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      total += digit * weight;
+      if (++weight > 7) {
+        weight = 2;
+      }
+    }
+    return (11 - total % 11) % 11;
+  }
+
+  /**
+   * Returns the IBM mod 11 check value of <tt>length</tt> characters of
+   * <tt>digits</tt> starting at <tt>offset</tt>.
+   *
+   * @see #mod11(CharSequence)
+   */
+  public static int mod11(char[] digits, int offset, int length) {
+    int total = 0;
+    int weight = 2;
+    for (int i = offset + length - 1; i >= offset; i--) {
+      int digit = digits[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      total += digit * weight;
+      if (++weight > 7) {
+        weight = 2;
+      }
+    }
+    return (11 - total % 11) % 11;
+  }
+
+  /**
+   * Returns the IBM mod 11 check value of the decimal digits of
+   * <tt>value</tt>.
+   *
+   * @return The check value, from 0 to 10, or -1 if <tt>value</tt> is
+   * negative.
+   */
+  public static int mod11(long value) {
+    if (value < 0) {
+      return -1;
+    }
+    int total = 0;
+    int weight = 2;
+    for (; value != 0; value /= 10) {
+      total += (int) (value % 10) * weight;
+      if (++weight > 7) {
+        weight = 2;
+      }
+    }
+    return (11 - total % 11) % 11;
+  }
+
+  /**
+   * Returns the EAN-5 add-on check value of <tt>digits</tt>, which selects
+   * the parity pattern of the add-on: the digits are weighted 3 and 9
+   * alternately, starting with 3 at the leftmost digit, and the sum is
+   * taken modulo 10.
+   *
+   * @return The check value, or -1 if <tt>digits</tt> is not five digits.
+   */
+  public static int ean5(CharSequence digits) {
+    return ean5(digits, 0, digits.length());
+  }
+
+  /**
+   * Returns the EAN-5 add-on check value of the characters in the range
+   * [from, to) of <tt>digits</tt>.
+   *
+   * @see #ean5(CharSequence)
+   */
+  public static int ean5(CharSequence digits, int from, int to) {
+    if (to - from != 5) {
+      return -1;
+    }
+    int total = 0;
+    for (int i = from; i < to; i++) {
+      int digit = digits.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      total += digit * (((i - from) & 1) == 0 ? 3 : 9);
+    }
+    return total % 10;
+  }
+
+  /**
+   * Returns the EAN-5 add-on check value of <tt>length</tt> characters of
+   * <tt>digits</tt> starting at <tt>offset</tt>.
+   *
+   * @see #ean5(CharSequence)
+   */
+  public static int ean5(char[] digits, int offset, int length) {
+    if (length != 5) {
+      return -1;
+    }
+    int total = 0;
+    for (int i = 0; i < length; i++) {
+      int digit = digits[offset + i] - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      total += digit * ((i & 1) == 0 ? 3 : 9);
+    }
+    return total % 10;
+  }
+
+  /**
+   * Returns the EAN-5 add-on check value of <tt>value</tt> written as five
+   * digits, with leading zeros.
+   *
+   * @return The check value, or -1 if <tt>value</tt> is outside the range
+   * 0 to 99999.
+   */
+  public static int ean5(long value) {
+    if (value < 0 || value > 99999) {
+      return -1;
+    }
+    int total = 0;
+    // The rightmost of the five digits is weighted 3.
+    int weight = 3;
+    for (int i = 0; i < 5; i++, value /= 10) {
+      total += (int) (value % 10) * weight;
+      weight = 12 - weight;
+    }
+    return total % 10;
+  }
+
+  /**
+   * Returns the Code 39 mod 43 check value of <tt>text</tt>, the sum of the
+   * values of its characters modulo 43.
+   *
+   * @param text Code 39 characters, without the start and stop characters.
+   *
+   * @return The check value, which indexes {@link #CODE_39_CHARACTERS}, or
+   * -1 if <tt>text</tt> contains a character that is not a Code 39 data
+   * character.
+   */
+  public static int code39(CharSequence text) {
+    return code39(text, 0, text.length());
+  }
+
+  /**
+   * Returns the Code 39 mod 43 check value of the characters in the range
+   * [from, to) of <tt>text</tt>.
+   *
+   * @see #code39(CharSequence)
+   */
+  public static int code39(CharSequence text, int from, int to) {
+    int total = 0;
+    for (int i = to - 1; i >= from; i--) {
+      int value = valueOf(code39Values, text.charAt(i));
+      if (value < 0) {
+        return -1;
+      }
+      total += value;
+    }
+    return total % 43;
+  }
+
+  /**
+   * Returns the Code 39 mod 43 check value of <tt>length</tt> characters of
+   * <tt>text</tt> starting at <tt>offset</tt>.
+   *
+   * @see #code39(CharSequence)
+   */
+  public static int code39(char[] text, int offset, int length) {
+    int total = 0;
+    for (int i = offset + length - 1; i >= offset; i--) {
+      int value = valueOf(code39Values, text[i]);
+      if (value < 0) {
+        return -1;
+      }
+      total += value;
+    }
+    return total % 43;
+  }
+
+  /**
+   * Returns the two Code 93 check values "C" and "K" of <tt>text</tt>,
+   * computed in one pass from right to left.  The K weights are those of C
+   * shifted by one place, since the C check character itself is weighted 1
+   * in the K sum.
+   *
+   * @param text Code 93 characters.  For Code 93 Extended, this is the text
+   * after the shift characters have been inserted.
+   *
+   * @return The C check value in bits 8 to 15 and the K check value in bits
+   * 0 to 7, each of which indexes {@link #CODE_93_CHARACTERS}, or -1 if
+   * <tt>text</tt> contains a character that is not a Code 93 data character.
+   */
+  public static int code93(CharSequence text) {
+    return code93(text, 0, text.length());
+  }
+
+  /**
+   * Returns the two Code 93 check values of the characters in the range
+   * [from, to) of <tt>text</tt>.
+   *
+   * @see #code93(CharSequence)
+   */
+  public static int code93(CharSequence text, int from, int to) {
+    int sumC = 0;
+    int sumK = 0;
+    int weightC = 1;
+    int weightK = 2;
+    for (int i = to - 1; i >= from; i--) {
+      int value = valueOf(code93Values, text.charAt(i));
+      if (value < 0) {
+        return -1;
+      }
+      sumC += value * weightC;
+      sumK += value * weightK;
+      if (++weightC > 20) {
+        weightC = 1;
+      }
+      if (++weightK > 15) {
+        weightK = 1;
+      }
+    }
+    int checkC = sumC % 47;
+    int checkK = (sumK + checkC) % 47;
+    return checkC << 8 | checkK;
+  }
+
+  /**
+   * Returns the two Code 93 check values of <tt>length</tt> characters of
+   * <tt>text</tt> starting at <tt>offset</tt>.
+   *
+   * @see #code93(CharSequence)
+   */
+  public static int code93(char[] text, int offset, int length) {
+    int sumC = 0;
+    int sumK = 0;
+    int weightC = 1;
+    int weightK = 2;
+    for (int i = offset + length - 1; i >= offset; i--) {
+      int value = valueOf(code93Values, text[i]);
+      if (value < 0) {
+        return -1;
+      }
+      sumC += value * weightC;
+      sumK += value * weightK;
+      if (++weightC > 20) {
+        weightC = 1;
+      }
+      if (++weightK > 15) {
+        weightK = 1;
+      }
+    }
+    int checkC = sumC % 47;
+    int checkK = (sumK + checkC) % 47;
+    return checkC << 8 | checkK;
+  }
+
+  /**
+   * Returns the two Code 11 check values "C" and "K" of <tt>text</tt>,
+   * computed in one pass from right to left.  C is weighted 1 to 10 and K,
+   * which also covers the C check character, 1 to 9.
+   *
+   * @param text Code 11 characters, without the start and stop characters.
+   *
+   * @return The C check value in bits 8 to 15 and the K check value in bits
+   * 0 to 7, each of which indexes {@link #CODE_11_CHARACTERS}, or -1 if
+   * <tt>text</tt> contains a character that is not a Code 11 data character.
+   */
+  public static int code11(CharSequence text) {
+    return code11(text, 0, text.length());
+  }
+
+  /**
+   * Returns the two Code 11 check values of the characters in the range
+   * [from, to) of <tt>text</tt>.
+   *
+   * @see #code11(CharSequence)
+   */
+  public static int code11(CharSequence text, int from, int to) {
+    int sumC = 0;
+    int sumK = 0;
+    int weightC = 1;
+    int weightK = 2;
+    for (int i = to - 1; i >= from; i--) {
+      int value = valueOf(code11Values, text.charAt(i));
+      if (value < 0) {
+        return -1;
+      }
+      sumC += value * weightC;
+      sumK += value * weightK;
+      if (++weightC > 10) {
+        weightC = 1;
+      }
+      if (++weightK > 9) {
+        weightK = 1;
+      }
+    }
+    int checkC = sumC % 11;
+    int checkK = (sumK + checkC) % 11;
+    return checkC << 8 | checkK;
+  }
+
+  /**
+   * Returns the two Code 11 check values of <tt>length</tt> characters of
+   * <tt>text</tt> starting at <tt>offset</tt>.
+   *
+   * @see #code11(CharSequence)
+   */
+  public static int code11(char[] text, int offset, int length) {
+    int sumC = 0;
+    int sumK = 0;
+    int weightC = 1;
+    int weightK = 2;
+    for (int i = offset + length - 1; i >= offset; i--) {
+      int value = valueOf(code11Values, text[i]);
+      if (value < 0) {
+        return -1;
+      }
+      sumC += value * weightC;
+      sumK += value * weightK;
+      if (++weightC > 10) {
+        weightC = 1;
+      }
+      if (++weightK > 9) {
+        weightK = 1;
+      }
+    }
+    int checkC = sumC % 11;
+    int checkK = (sumK + checkC) % 11;
+    return checkC << 8 | checkK;
+  }
+
+  /**
+   * Returns the Code 128 mod 103 check value of a sequence of symbol
+   * values: the start character is weighted 1 and each following value by
+   * its position.
+   *
+   * @param values The symbol values, starting with the start character
+   * (103, 104 or 105) and without the stop character.
+   * @param offset The index of the start character in <tt>values</tt>.
+   * @param length The number of values, including the start character.
+   *
+   * @return The check value, from 0 to 102, or -1 if a value is outside the
+   * range 0 to 105.
+   */
+  public static int code128(int[] values, int offset, int length) {
+    long total = 0;
+    for (int i = 0; i < length; i++) {
+      int value = values[offset + i];
+      if (value < 0 || value > 105) {
+        return -1;
+      }
+      total += (long) value * Math.max(i, 1);
+    }
+    return (int) (total % 103);
+  }
+}
@@ -22,10 +22,10 @@ import net.sourceforge.jbarcodebean.BarcodeException;
 
 /**
  * This class, which implements the {@link BarcodeStrategy} interface,
- * knows how to encode the 3:1 (wide)
- * variant of the Codabar barcode type.
+ * knows how to encode the Codabar barcode type.  The wide:narrow ratio is
+ * 3:1 unless another ratio is given to the constructor.
  */
-public class Codabar extends AbstractBarcodeStrategy implements java.io.Serializable {
+public class Codabar extends TwoWidthBarcodeStrategy implements java.io.Serializable {
 
   private static CharacterCode[] codes = {
     new CharacterCode('0', new byte[] {1,1,1,1,1,3,3,1}, 0),
@@ -48,6 +48,24 @@ public class Codabar extends AbstractBarcodeStrategy implements java.io.Serializ
     new CharacterCode('B', new byte[] {1,3,1,3,1,1,3,1}, 17)    // Stop
   };
 
+  /**
+   * Creates a strategy with a wide:narrow ratio of 3:1.
+   */
+  public Codabar() {
+    this(3);
+  }
+
+  /**
+   * Creates a strategy with the given wide:narrow ratio.
+   *
+   * @see TwoWidthBarcodeStrategy#TwoWidthBarcodeStrategy(double)
+   *
+   * @since 1.2.1
+   */
+  public Codabar(double ratio) {
+    super(ratio);
+  }
+
   /**
    * Always returns {@link BarcodeStrategy#NO_CHECKSUM}.
    */
@@ -57,11 +75,11 @@ public class Codabar extends AbstractBarcodeStrategy implements java.io.Serializ
   }
 
   /**
-   * This implementation of <tt>getCodes</tt> returns an array of
+   * This implementation of <tt>getTemplateCodes</tt> returns an array of
    * {@link AbstractBarcodeStrategy.CharacterCode CharacterCode} objects
-   * for the wide Codabar format.
+   * for the 3:1 Codabar format.
    */
-  protected CharacterCode[] getCodes() {
+  protected CharacterCode[] getTemplateCodes() {
     return Codabar.codes;
   }
 
@@ -69,24 +87,22 @@ public class Codabar extends AbstractBarcodeStrategy implements java.io.Serializ
    * Codabar does not have a checksum, so this function should never be called.
    * This implementation simply throws an exception.
    */
-  protected String augmentWithChecksum(String text) throws BarcodeException {
+  protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
     throw new BarcodeException("No checksum in Codabar");
   }
 
   /**
-   * This implementation of <tt>postprocess</tt> does nothing except return
-   * the text passed to the method.
+   * This implementation of <tt>postprocess</tt> does nothing.
    */
-  protected String postprocess(String text) {
-    return text;
+  protected void postprocess(StringBuilder text) {
   }
 
   /**
-   * This implementation of <tt>preprocess</tt> does nothing except return
+   * This implementation of <tt>preprocess</tt> does nothing except append
    * the text passed to the method.
    */
-  protected String preprocess(String text) {
-    return text;
+  protected void preprocess(CharSequence text, StringBuilder out) {
+    out.append(text);
   }
 
   /**
@@ -110,13 +126,6 @@ public class Codabar extends AbstractBarcodeStrategy implements java.io.Serializ
     return 'B';
   }
 
-  /**
-   * Always returns 11 (eleven).
-   */
-  protected byte getMarginWidth() {
-    return 11;
-  }
-
    /**
    * This implementation of <tt>getBarcodeLabelText</tt> does nothing except return
    * the text passed to the method.
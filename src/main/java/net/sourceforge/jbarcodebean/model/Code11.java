@@ -38,36 +38,47 @@ public class Code11 extends AbstractBarcodeStrategy {
         new CharacterCode('*',new byte[]{1,1,2,2,1,1},11),    
         new CharacterCode('$',new byte[]{0,1},12)};    
 
-    protected String augmentWithChecksum(String text) throws BarcodeException {
-        int checksumC=0;
-        int checksumK=0;
-        int weightC=1;
-        int weightK=1;
-        for(int i=text.length()-1;i>=0;i--){
-            CharacterCode cc = getCharacterCode(text.charAt(i));
-            checksumC+=cc.check*weightC;
-            weightC++;
-            if(weightC>10){
-                weightC=1;
-            }
+    /**
+     * Appends the C check character, and the K check character as well if
+     * the text is then at least 10 characters long.
+     */
+    protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+        int checks = Checksums.code11(text);
+        if (checks < 0) {
+            checks = computeChecks(text);
+        }
+        text.append(Checksums.CODE_11_CHARACTERS.charAt(checks >> 8));
+        if (text.length() >= 10) {
+            text.append(Checksums.CODE_11_CHARACTERS.charAt(checks & 0xff));
         }
-        checksumC=checksumC%11;
-        CharacterCode codeC=getCharacterCode(checksumC);
-        text+=codeC.character;
-        for(int i=text.length()-1;i>=0;i--){
+    }
+
+    /**
+     * Computes the check values as {@link Checksums#code11} does, but takes
+     * the value of each character from the code table, so that '$', which
+     * is not a Code 11 data character, counts as 12 as it did in 1.2.0.
+     */
+    private int computeChecks(CharSequence text) throws BarcodeException {
+        int sumC = 0;
+        int sumK = 0;
+        int weightC = 1;
+        int weightK = 2;
+        for (int i = text.length() - 1; i >= 0; i--) {
             CharacterCode cc = getCharacterCode(text.charAt(i));
-            checksumK+=cc.check*weightK;
-            weightK++;
-            if(weightK>9){
-                weightK=1;
+            if (cc == null) {
+                throw new BarcodeException("Invalid character in barcode");
+            }
+            sumC += cc.check * weightC;
+            sumK += cc.check * weightK;
+            if (++weightC > 10) {
+                weightC = 1;
+            }
+            if (++weightK > 9) {
+                weightK = 1;
             }
         }
-        checksumK=checksumK%11;
-        CharacterCode codeK=getCharacterCode(checksumK);
-        if(text.length()>=10){
-            text+=codeK.character;
-        }
-        return text;
+        int checkC = sumC % 11;
+        return checkC << 8 | (sumK + checkC) % 11;
     }
 
     protected String getBarcodeLabelText(String text) {
@@ -94,12 +105,11 @@ public class Code11 extends AbstractBarcodeStrategy {
         return false;
     }
 
-    protected String postprocess(String text) {
-        return text;
+    protected void postprocess(StringBuilder text) {
     }
 
-    protected String preprocess(String text) throws BarcodeException {
-        return text;
+    protected void preprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+        out.append(text);
     }
 
     public int requiresChecksum() {
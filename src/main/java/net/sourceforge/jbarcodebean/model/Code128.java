@@ -19,6 +19,7 @@
 package net.sourceforge.jbarcodebean.model;
 
 import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.ModuleSink;
 
 /**
  * Code 128 barcode strategy implementation.  This format can encode the
@@ -37,16 +38,16 @@ public class Code128 extends AbstractBarcodeStrategy {
   /** Code 128 FUNCTION CODE 4 */
   public static final char FNC_4 = '\u0083';
 
-  private static final char START_A = '\u0084';
-  private static final char START_B = '\u0085';
-  private static final char START_C = '\u0086';
+  static final char START_A = '\u0084';
+  static final char START_B = '\u0085';
+  static final char START_C = '\u0086';
 
-  private static final char MODE_A = '\u0087';
-  private static final char MODE_B = '\u0088';
-  private static final char MODE_C = '\u0089';
+  static final char MODE_A = '\u0087';
+  static final char MODE_B = '\u0088';
+  static final char MODE_C = '\u0089';
 
-  private static final char SHIFT = '\u008A';
-  private static final char STOP = '\u008B';
+  static final char SHIFT = '\u008A';
+  static final char STOP = '\u008B';
 
   /**
    * A static array of
@@ -168,6 +169,29 @@ public class Code128 extends AbstractBarcodeStrategy {
     new CharacterCode(STOP, new byte[] {2,3,3,1,1,1,2}, 106)
   };
 
+  /**
+   * Whether a subclass overrides the checksum or postprocess stage, see
+   * hasCustomStages: 0 if not yet known, 1 if not, 2 if it does.
+   */
+  private transient int customStages;
+
+  /**
+   * The Mode B counterparts of the Mode C values 0 to 99, indexed by value.
+   * Values 0 to 95 share their character with Mode B; 96 to 99 are the
+   * characters whose Mode B meaning differs.
+   */
+  private static final char[] codeC = new char[100];
+
+  static {
+    for (int value = 0; value < 96; value++) {
+      codeC[value] = (char) (' ' + value);
+    }
+    codeC[96] = FNC_3;
+    codeC[97] = FNC_2;
+    codeC[98] = SHIFT;
+    codeC[99] = MODE_C;
+  }
+
   /**
    * Always returns {@link BarcodeStrategy#MANDATORY_CHECKSUM}.
    */
@@ -187,20 +211,32 @@ public class Code128 extends AbstractBarcodeStrategy {
 
   /**
    * Returns the <tt>text</tt> parameter with function characters and
-   * control codes stripped out.
+   * control codes stripped out.  The <tt>text</tt> parameter itself is
+   * returned if there is nothing to strip.
    */
   protected String getBarcodeLabelText(String text) {
-    char ch;
-    String label = new String();
+    int len = text.length();
+    int i = 0;
+    while (i < len && isPrintable(text.charAt(i))) {
+      i++;
+    }
+    if (i == len) {
+      return text;
+    }
 
-    for (int i = 0; i < text.length(); i++) {
-      ch = text.charAt(i);
-      if (ch >= ' ' && ch <= '~') {
-        label += ch;
+    StringBuilder label = new StringBuilder(len - 1);
+    label.append(text, 0, i);
+    for (i++; i < len; i++) {
+      char ch = text.charAt(i);
+      if (isPrintable(ch)) {
+        label.append(ch);
       }
     }
+    return label.toString();
+  }
 
-    return label;
+  private static boolean isPrintable(char ch) {
+    return ch >= ' ' && ch <= '~';
   }
 
   /**
@@ -235,11 +271,67 @@ public class Code128 extends AbstractBarcodeStrategy {
     return false;
   }
 
+  /**
+   * Rejects empty text, and text that holds nothing but a function code.
+   */
+  public int validate(CharSequence text) {
+    int len = text.length();
+    if (len == 0) {
+      return 0;
+    }
+    int i = indexOfIllegalCharacter(text, 0, len);
+    if (i < 0 && len == 1 && text.charAt(0) >= FNC_1) {
+      return len;
+    }
+    return i;
+  }
+
+  /**
+   * Accepts the 128 ASCII characters and the four function codes.
+   */
+  protected boolean isLegalCharacter(char ch) {
+    return ch <= FNC_4;
+  }
+
+  /**
+   * Fast path of <tt>preprocess</tt> for text of two or more digits, which
+   * is encoded in Mode C from the start.  An odd last digit is encoded in
+   * Mode B, as the general path does.
+   *
+   * @return <tt>false</tt>, without appending anything, if <tt>text</tt>
+   * is shorter than two characters or contains a non-digit.
+   */
+  boolean preprocessNumeric(CharSequence text, StringBuilder preprocessed) {
+    int len = text.length();
+    if (len < 2) {
+      return false;
+    }
+    for (int i = 0; i < len; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    preprocessed.append(START_C);
+    int i = 0;
+    for (; i + 1 < len; i += 2) {
+      preprocessed.append(codeC[(text.charAt(i) - '0') * 10 + (text.charAt(i + 1) - '0')]);
+    }
+    if (i < len) {
+      preprocessed.append(FNC_4);  // Corresponds to Mode B.
+      preprocessed.append(text.charAt(i));
+    }
+    return true;
+  }
+
   /**
    * Inserts start character and code change characters.
    */
-  protected String preprocess(String text) throws BarcodeException {
-    StringBuilder preprocessed = new StringBuilder();
+  protected void preprocess(CharSequence text, StringBuilder preprocessed) throws BarcodeException {
+    if (preprocessNumeric(text, preprocessed)) {
+      return;
+    }
+
     char mode = 0;
     char startFunction = 0;
     char c1 = 0;
@@ -302,7 +394,7 @@ public class Code128 extends AbstractBarcodeStrategy {
           }
           else if (c1 >= '0' && c1 <= '9' && c2 >= '0' && c2 <= '9') {
             // Two digit encode.
-            preprocessed.append(convertCodeC(text.substring(i,i+2)));
+            preprocessed.append(codeC[(c1 - '0') * 10 + (c2 - '0')]);
             i++;
           }
           else if (c1 >= ' ' && c1 <= '\u007f') {
@@ -379,55 +471,87 @@ public class Code128 extends AbstractBarcodeStrategy {
           break;
       }
     }
-
-    return preprocessed.toString();
   }
 
   /**
-   * Converts the Mode C two-digit combinations to their corresponding
-   * Mode B counterparts.
+   * Converts a Mode C value (0 to 99) to its corresponding Mode B
+   * counterpart.
    */
-  private char convertCodeC(String twoDigits) {
-
-    char result = (char) (' ' + new Integer(twoDigits).intValue());
-
-    switch (result) {
-
-      case '\u0080' :   // 96
-        result = FNC_3;
-        break;
-
-      case '\u0081' :   // 97
-        result = FNC_2;
-        break;
+  static char convertCodeC(int value) {
+    return codeC[value];
+  }
 
-      case '\u0082' :   // 98
-        result = SHIFT;
-        break;
+  /**
+   * Does nothing.
+   */
+  protected void postprocess(StringBuilder text) {
+  }
 
-      case '\u0083' :   // 99
-        result = MODE_C;
-        break;
+  /**
+   * Writes the symbol in a single pass over the preprocessed text.  The
+   * weighted modulo 103 checksum is summed from the check values of the
+   * characters as they are written, so <tt>augmentWithChecksum</tt> is not
+   * called and the text is not scanned a second time.  If a subclass
+   * overrides <tt>augmentWithChecksum</tt> or <tt>postprocess</tt>, the
+   * stages are run in order instead, as for other strategies.
+   */
+  void encode(CharSequence textToEncode, boolean checked, ModuleWriter writer, ModuleSink sink) throws BarcodeException {
+    if (hasCustomStages()) {
+      super.encode(textToEncode, checked, writer, sink);
+      return;
     }
+    StringBuilder text = writer.text;
+    runPreprocess(textToEncode, text);
 
-    return result;
+    CodeTable table = getCodeTable();
+    writer.begin(sink, this);
+    writer.appendSpace(getMarginWidth());
+    appendGuard(writer, getLeadingGuard());
+    int checkTotal = 0;
+    int len = text.length();
+    for (int i = 0; i < len; i++) {
+      CharacterCode cc = table.get(text.charAt(i));
+      if (cc == null || cc.character == STOP) {
+        throw new BarcodeException("Invalid character in barcode");
+      }
+      // The start character has weight 1, as does the first character after it.
+      checkTotal += cc.check * Math.max(i, 1);
+      writer.append(cc.widths);
+    }
+    if (checked) {
+      writer.append(table.get(checkTotal % 103).widths);
+    }
+    writer.append(table.get(STOP).widths);
+    appendGuard(writer, getTrailingGuard());
+    writer.appendSpace(getMarginWidth());
+    writer.finish();
   }
 
   /**
-   * Does nothing except return the String passed to the method.
+   * Returns <tt>true</tt> if a subclass overrides either form of
+   * <tt>augmentWithChecksum</tt> or <tt>postprocess</tt>.
    */
-  protected String postprocess(String text) {
-    return text;
+  private boolean hasCustomStages() {
+    int custom = customStages;
+    if (custom == 0) {
+      custom = isOverriddenBelow(Code128.class, "augmentWithChecksum", StringBuilder.class)
+          || isOverriddenBelow(Code128.class, "augmentWithChecksum", String.class)
+          || isOverriddenBelow(Code128.class, "postprocess", StringBuilder.class)
+          || isOverriddenBelow(Code128.class, "postprocess", String.class) ? 2 : 1;
+      customStages = custom;
+    }
+    return custom == 2;
   }
 
   /**
-   * Returns a String containing the checksum-encoded version of the text passed
-   * to the method.
+   * Appends the checksum character to the text passed to the method.
    * It is assumed that the text passed to this method includes the Start
    * character (populated by <tt>preprocess</tt>), but not the Stop character
-   * (end sentinel).
+   * (end sentinel).  <tt>encode</tt> calls this method only if a subclass
+   * overrides it; otherwise it computes the checksum while writing the
+   * symbol.
    */
-  protected String augmentWithChecksum(String text) throws BarcodeException {
+  protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
     int checkTotal = 0;
     CharacterCode cc;
 
@@ -444,6 +568,6 @@ public class Code128 extends AbstractBarcodeStrategy {
       checkTotal += cc.check * i;
     }
     cc = getCharacterCode(checkTotal % 103); // get code by check number
-    return text + cc.character;
+    text.append(cc.character);
   }
 }
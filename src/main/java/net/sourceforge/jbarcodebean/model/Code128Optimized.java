@@ -0,0 +1,201 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+
+/**
+ * Code 128 barcode strategy that produces the narrowest possible symbol.
+ * Every Code 128 character is 11 modules wide, so the narrowest symbol is
+ * the one with the fewest characters.  Instead of choosing the code set
+ * from the next one or two characters, as {@link Code128} does, this
+ * strategy finds the shortest sequence of code sets A, B and C, code
+ * changes and SHIFT characters for the whole text by dynamic programming,
+ * working back from the end of the text.  The symbols it produces decode
+ * to the same data as those of {@link Code128}.
+ *
+ * @since 1.2.1
+ */
+public class Code128Optimized extends Code128 {
+
+  private static final int SET_A = 0;
+  private static final int SET_B = 1;
+  private static final int SET_C = 2;
+
+  /** Step: encode the next character(s) in the current code set. */
+  private static final byte DIRECT = 0;
+  /** Step: SHIFT, then encode the next character in the other of sets A and B. */
+  private static final byte SHIFTED = 1;
+  /** Step: change to code set (step - LATCH), then encode the next character(s) in it. */
+  private static final byte LATCH = 2;
+
+  private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+  /**
+   * Rejects empty text only; unlike {@link Code128}, a lone function code
+   * can be encoded.
+   */
+  public int validate(CharSequence text) {
+    if (text.length() == 0) {
+      return 0;
+    }
+    return indexOfIllegalCharacter(text, 0, text.length());
+  }
+
+  /**
+   * Inserts the start character, code changes and SHIFT characters of the
+   * shortest encoding of <tt>text</tt>.
+   */
+  protected void preprocess(CharSequence text, StringBuilder preprocessed) throws BarcodeException {
+    int len = text.length();
+    if (len == 0) {
+      throw new BarcodeException("No text to encode");
+    }
+    if (len % 2 == 0 && preprocessNumeric(text, preprocessed)) {
+      // An even number of digits is shortest in Mode C throughout.
+      return;
+    }
+    for (int i = 0; i < len; i++) {
+      if (text.charAt(i) > FNC_4) {
+        throw new BarcodeException("Invalid character in barcode");
+      }
+    }
+
+    // cost[i * 3 + set] is the number of characters needed to encode
+    // text[i..len) when set is the current code set, and step[i * 3 + set]
+    // is the first step of that encoding.
+    // The arrays are reused from one encode to the next on each thread.
+    ModuleWriter writer = ModuleWriter.scratch();
+    int[] cost = writer.costs((len + 1) * 3);
+    byte[] step = writer.steps(len * 3);
+    cost[len * 3 + SET_A] = 0;
+    cost[len * 3 + SET_B] = 0;
+    cost[len * 3 + SET_C] = 0;
+    for (int i = len - 1; i >= 0; i--) {
+      for (int set = SET_A; set <= SET_C; set++) {
+        int best = UNREACHABLE;
+        byte bestStep = DIRECT;
+        int n = consumed(text, i, set);
+        if (n > 0) {
+          best = 1 + cost[(i + n) * 3 + set];
+        }
+        if (set != SET_C && consumed(text, i, SET_B - set) == 1) {
+          int c = 2 + cost[(i + 1) * 3 + set];
+          if (c < best) {
+            best = c;
+            bestStep = SHIFTED;
+          }
+        }
+        for (int target = SET_A; target <= SET_C; target++) {
+          n = target == set ? 0 : consumed(text, i, target);
+          if (n > 0) {
+            int c = 2 + cost[(i + n) * 3 + target];
+            if (c < best) {
+              best = c;
+              bestStep = (byte) (LATCH + target);
+            }
+          }
+        }
+        cost[i * 3 + set] = best;
+        step[i * 3 + set] = bestStep;
+      }
+    }
+
+    int set = SET_B;
+    if (cost[SET_C] < cost[set]) {
+      set = SET_C;
+    }
+    if (cost[SET_A] < cost[set]) {
+      set = SET_A;
+    }
+    preprocessed.append(set == SET_A ? START_A : set == SET_B ? START_B : START_C);
+
+    int i = 0;
+    while (i < len) {
+      byte s = step[i * 3 + set];
+      if (s == SHIFTED) {
+        preprocessed.append(SHIFT);
+        i += append(text, i, SET_B - set, preprocessed);
+      } else {
+        if (s != DIRECT) {
+          set = s - LATCH;
+          preprocessed.append(set == SET_A ? MODE_A : set == SET_B ? FNC_4 : MODE_C);
+        }
+        i += append(text, i, set, preprocessed);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of characters of <tt>text</tt> at <tt>i</tt> that
+   * one character in code set <tt>set</tt> encodes, or 0 if the character
+   * at <tt>i</tt> is not in that set.
+   */
+  private static int consumed(CharSequence text, int i, int set) {
+    char c = text.charAt(i);
+    switch (set) {
+      case SET_A :
+        return c < '`' || c >= FNC_1 ? 1 : 0;
+      case SET_B :
+        return c >= ' ' ? 1 : 0;
+      default :
+        if (c == FNC_1) {
+          return 1;
+        }
+        if (c >= '0' && c <= '9' && i + 1 < text.length()) {
+          char c2 = text.charAt(i + 1);
+          if (c2 >= '0' && c2 <= '9') {
+            return 2;
+          }
+        }
+        return 0;
+    }
+  }
+
+  /**
+   * Appends the character that encodes the text at <tt>i</tt> in code set
+   * <tt>set</tt>, as its Mode B counterpart, and returns the number of
+   * characters of text it encodes.
+   */
+  private static int append(CharSequence text, int i, int set, StringBuilder preprocessed) {
+    char c = text.charAt(i);
+    switch (set) {
+      case SET_A :
+        if (c < ' ') {
+          // Control character.
+          preprocessed.append((char) (c + '`'));
+        } else if (c == FNC_4) {
+          preprocessed.append(MODE_A);   // Corresponds to FNC_4.
+        } else {
+          preprocessed.append(c);
+        }
+        return 1;
+      case SET_B :
+        preprocessed.append(c);
+        return 1;
+      default :
+        if (c == FNC_1) {
+          preprocessed.append(FNC_1);
+          return 1;
+        }
+        preprocessed.append(convertCodeC((c - '0') * 10 + (text.charAt(i + 1) - '0')));
+        return 2;
+    }
+  }
+}
@@ -20,30 +20,109 @@ package net.sourceforge.jbarcodebean.model;
 
 /**
  * This class, which implements the {@link BarcodeStrategy} interface,
- * knows how to encode the 3:1 (wide)
- * variant of the Code 3 of 9 barcode type.
+ * knows how to encode the Code 3 of 9 barcode type.  The wide:narrow ratio
+ * is 3:1 unless another ratio is given to the constructor.
  */
 public class Code39 extends BaseCode39 implements java.io.Serializable {
 
   /**
-   * This implementation of <tt>getCodes</tt> returns {@link BaseCode39#codes}.
+   * Creates a strategy with a wide:narrow ratio of 3:1.
    */
-  protected CharacterCode[] getCodes() {
+  public Code39() {
+    this(3);
+  }
+
+  /**
+   * Creates a strategy with the given wide:narrow ratio.
+   *
+   * @see TwoWidthBarcodeStrategy#TwoWidthBarcodeStrategy(double)
+   *
+   * @since 1.2.1
+   */
+  public Code39(double ratio) {
+    super(ratio);
+  }
+
+  /**
+   * This implementation of <tt>getTemplateCodes</tt> returns {@link BaseCode39#codes}.
+   */
+  protected CharacterCode[] getTemplateCodes() {
     return BaseCode39.codes;
   }
 
   /**
-   * Returns an UPPER CASE version of the <tt>text</tt> parameter.
+   * Appends an UPPER CASE version of the <tt>text</tt> parameter.
    */
-  protected String preprocess(String text) {
-    return text.toUpperCase();
+  protected void preprocess(CharSequence text, StringBuilder out) {
+    appendUpperCase(text, out);
   }
 
   /**
-   * Returns an UPPER CASE version of the <tt>text</tt> parameter.
+   * Accepts the characters whose UPPER CASE version is a Code 39 character.
+   */
+  protected boolean isLegalCharacter(char ch) {
+    return super.isLegalCharacter(Character.toUpperCase(ch));
+  }
+
+  /**
+   * Checks each character outside ASCII by its UPPER CASE version as a
+   * <tt>String</tt>, which may be several characters long.
+   */
+  public int validate(CharSequence text) {
+    int len = text.length();
+    int i = indexOfIllegalCharacter(text, 0, len);
+    while (i >= 0) {
+      char ch = text.charAt(i);
+      if (ch < 128) {
+        return i;
+      }
+      String upper = String.valueOf(ch).toUpperCase();
+      if (indexOfIllegalCharacter(upper, 0, upper.length()) >= 0) {
+        return i;
+      }
+      i = indexOfIllegalCharacter(text, i + 1, len);
+    }
+    return -1;
+  }
+
+  /**
+   * Returns an UPPER CASE version of the <tt>text</tt> parameter, or the
+   * text itself if it holds no lower case letters.
    */
   protected String getBarcodeLabelText(String text) {
-    return text.toUpperCase();
+    int len = text.length();
+    boolean lowerCase = false;
+    for (int i = 0; i < len; i++) {
+      char ch = text.charAt(i);
+      if (ch >= 128) {
+        return text.toUpperCase();
+      }
+      lowerCase |= ch >= 'a' && ch <= 'z';
+    }
+    if (!lowerCase) {
+      return text;
+    }
+    StringBuilder out = new StringBuilder(len);
+    appendUpperCase(text, out);
+    return out.toString();
   }
-}
 
+  /**
+   * Appends an UPPER CASE version of <tt>text</tt> to <tt>out</tt>.  ASCII
+   * text is converted one character at a time.  Other text is converted by
+   * {@link String#toUpperCase()}, as in 1.2.0, so that a German sharp s
+   * becomes "SS".
+   */
+  private static void appendUpperCase(CharSequence text, StringBuilder out) {
+    int len = text.length();
+    for (int i = 0; i < len; i++) {
+      if (text.charAt(i) >= 128) {
+        out.append(text.toString().toUpperCase());
+        return;
+      }
+    }
+    for (int i = 0; i < len; i++) {
+      out.append(Character.toUpperCase(text.charAt(i)));
+    }
+  }
+}
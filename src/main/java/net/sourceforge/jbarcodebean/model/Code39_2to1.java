@@ -26,9 +26,9 @@ package net.sourceforge.jbarcodebean.model;
 public class Code39_2to1 extends Code39 implements java.io.Serializable {
 
   /**
-   * This implementation of <tt>getCodes</tt> returns {@link BaseCode39#codes2to1}.
+   * Creates a strategy with a wide:narrow ratio of 2:1.
    */
-  protected CharacterCode[] getCodes() {
-    return BaseCode39.codes2to1;
+  public Code39_2to1() {
+    super(2);
   }
 }
@@ -18,11 +18,7 @@
  */
 package net.sourceforge.jbarcodebean.model;
 
-import java.util.ArrayList;
-
-import net.sourceforge.jbarcodebean.BarcodeElement;
 import net.sourceforge.jbarcodebean.BarcodeException;
-import net.sourceforge.jbarcodebean.EncodedBarcode;
 
 
 public class Code93 extends AbstractBarcodeStrategy {
@@ -32,6 +28,8 @@ public class Code93 extends AbstractBarcodeStrategy {
     protected static final char SHIFT_SLASH   =(char)1045;
     protected static final char SHIFT_PLUS    =(char)1046;    
     
+    private static final byte[] TERMINATION_BAR = {1};
+    
     static final CharacterCode[] codes={
         new CharacterCode('0',new byte[]{1,3,1,1,1,2},0),
         new CharacterCode('1',new byte[]{1,1,1,2,1,3},1),
@@ -83,36 +81,23 @@ public class Code93 extends AbstractBarcodeStrategy {
         new CharacterCode('*',new byte[]{1,1,1,1,4,1},-1)
     };
 
-    protected String augmentWithChecksum(String text) throws BarcodeException {
-        int checksumC=0;
-        int checksumK=0;
-        int weightC=1;
-        int weightK=1;
-        for(int i=text.length()-1;i>=0;i--){
-            char c=text.charAt(i);
-            CharacterCode cc=getCharacterCode(c);
-            checksumC+=cc.check*weightC;
-            weightC++;
-            if(weightC>20){
-                weightC=1;
-            }
-        }
-        checksumC=checksumC%47;
-        CharacterCode codeC=getCharacterCode(checksumC);
-        text+=codeC.character;
-        for(int i=text.length()-1;i>=0;i--){
-            char c=text.charAt(i);
-            CharacterCode cc=getCharacterCode(c);
-            checksumK+=cc.check*weightK;
-            weightK++;
-            if(weightK>15){
-                weightK=1;
-            }
+    /**
+     * Computes both check values with {@link Checksums#code93}.
+     *
+     * @return The C check value in bits 8 to 15, the K check value in bits 0 to 7.
+     */
+    static int computeChecks(CharSequence text) throws BarcodeException {
+        int checks = Checksums.code93(text);
+        if (checks < 0) {
+            throw new BarcodeException("Invalid character in barcode");
         }
-        checksumK=checksumK%47;
-        CharacterCode codeK=getCharacterCode(checksumK);
-        text+=codeK.character;
-        return text;
+        return checks;
+    }
+
+    protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+        int checks = computeChecks(text);
+        text.append(codes[checks >> 8].character);
+        text.append(codes[checks & 0xff].character);
     }
 
     protected String getBarcodeLabelText(String text) {
@@ -139,30 +124,22 @@ public class Code93 extends AbstractBarcodeStrategy {
         return false;
     }
 
-    protected String postprocess(String text) {
-        return text;
+    protected void postprocess(StringBuilder text) {
     }
 
-    protected String preprocess(String text) throws BarcodeException {
-        return text;
+    protected void preprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+        out.append(text);
     }
 
     public int requiresChecksum() {
         return MANDATORY_CHECKSUM;
     }
 
-    public EncodedBarcode encode(String textToEncode, boolean checked) throws BarcodeException {
-        EncodedBarcode ebc=super.encode(textToEncode, checked);
-        BarcodeElement[] elements = ebc.elements;
-        String barcodeLabelText = ebc.barcodeLabelText;
-        BarcodeElement terminationBar=new BarcodeElement(BarcodeElement.TYPE_BAR, 1);
-        ArrayList list=new ArrayList();
-        for(int i=0;i<elements.length;i++){
-            list.add(elements[i]);
-        }
-        list.add(list.size()-1,terminationBar);
-        BarcodeElement[] allElements=(BarcodeElement[]) list.toArray(new BarcodeElement[list.size()]);
-        return new EncodedBarcode(allElements, barcodeLabelText);
+    /**
+     * Returns the termination bar that follows the stop character.
+     */
+    protected byte[] getTrailingGuard() {
+        return TERMINATION_BAR;
     }
-    
+
 }
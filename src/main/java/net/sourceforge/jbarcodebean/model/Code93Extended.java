@@ -30,23 +30,31 @@ public class Code93Extended extends Code93 {
             this.encoded=encoded;
         }
     }
-    private String getEncoded(char character){
-        for(int i=0;i<CODES_EXTENDED.length;i++){
-            if(CODES_EXTENDED[i].character==character){
-                return CODES_EXTENDED[i].encoded;
-            }
-        }
-        return "";
+
+    /**
+     * Accepts the ASCII characters, which are all mapped to Code 93 characters.
+     */
+    protected boolean isLegalCharacter(char ch) {
+        return ch < 128;
     }
-    
-    protected String preprocess(String text) throws BarcodeException {
-        StringBuffer buffer=new StringBuffer();
-        for(int i=0;i<text.length();i++){
-            buffer.append(getEncoded(text.charAt(i)));
+
+    /**
+     * Replaces each ASCII character by its one or two character Code 93
+     * encoding.
+     *
+     * @throws BarcodeException If the text contains a character outside ASCII.
+     */
+    protected void preprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+        int len = text.length();
+        out.ensureCapacity(out.length() + len * 2);
+        for(int i=0;i<len;i++){
+            char c=text.charAt(i);
+            if(c>=expansions.length){
+                throw new BarcodeException("Invalid character in barcode");
+            }
+            out.append(expansions[c]);
         }
-        return buffer.toString();
     }
-    
 
     private static MappedCode[] CODES_EXTENDED={
         new MappedCode((char)0    , SHIFT_DOLLAR+"U"),
@@ -178,5 +186,14 @@ public class Code93Extended extends Code93 {
         new MappedCode('~'      , SHIFT_DOLLAR+"S"),
         new MappedCode((char)127    , SHIFT_DOLLAR+"T")
     };
+
+    /** The encodings of CODES_EXTENDED, indexed by ASCII character */
+    private static final String[] expansions=new String[128];
+
+    static {
+        for(int i=0;i<CODES_EXTENDED.length;i++){
+            expansions[CODES_EXTENDED[i].character]=CODES_EXTENDED[i].encoded;
+        }
+    }
  
 }
@@ -16,6 +16,7 @@
 package net.sourceforge.jbarcodebean.model;
 
 import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.ModuleSink;
 
 
 /**
@@ -23,6 +24,11 @@ import net.sourceforge.jbarcodebean.BarcodeException;
  * If less than 12 digits are supplied, the symbol is invalid
  * Only the first 12 digits are considered: the checksum (13th digit) is
  * always generated (MANDATORY_CHECKSUM).
+ * <p>
+ * Since 1.2.1 the symbol is written straight from the digits, so
+ * <tt>encode</tt> does not call <tt>preprocess</tt>,
+ * <tt>augmentWithChecksum</tt> or <tt>postprocess</tt>, and overriding them
+ * has no effect.  They still build the layout text of earlier versions.
  *
  * @author  Jose Gaonac'h
  */
@@ -59,7 +65,45 @@ public class Ean13 extends AbstractBarcodeStrategy implements java.io.Serializab
     
     private static char[] bPattern = {'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j'};
     
-    protected String checkSum;
+    /*
+      Positions of the B codes among the six left-side digits for each system
+      digit: bit i is set if the digit at position i uses its B representation
+      (see the layout table below).
+     */
+    static final int[] parity = {
+        0x00,   // A A A A A A
+        0x34,   // A A B A B B
+        0x2c,   // A A B B A B
+        0x1c,   // A A B B B A
+        0x32,   // A B A A B B
+        0x26,   // A B B A A B
+        0x0e,   // A B B B A A
+        0x2a,   // A B A B A B
+        0x1a,   // A B A B B A
+        0x16    // A B B A B A
+    };
+    
+    /*
+      Widths of each digit, indexed by the digit: on the left side in its A
+      and B representations, and on the right side.  The right side reuses the
+      A widths, as the center guard reverses bars and spaces.
+     */
+    static final byte[][] leftA = new byte[10][];
+    static final byte[][] leftB = new byte[10][];
+    static final byte[][] right = leftA;
+    static final byte[] normalGuard = codes[20].widths;
+    static final byte[] centerGuard = codes[22].widths;
+    
+    /* Guards of the 2 and 5 digit add-ons: the start guard and the delimiter between digits */
+    static final byte[] addOnGuard = {1,1,2};
+    static final byte[] addOnDelimiter = {1,1};
+    
+    static {
+        for (int i = 0; i < 10; i++) {
+            leftA[i] = codes[i].widths;
+            leftB[i] = codes[10 + i].widths;
+        }
+    }
     
     public int requiresChecksum() {
         return MANDATORY_CHECKSUM;
@@ -69,38 +113,140 @@ public class Ean13 extends AbstractBarcodeStrategy implements java.io.Serializab
         return codes;
     }
     
-    // Compute checksum and store it locally.
-    protected void computeChecksum(String text, int len) {
-        int even = 0;
-        int odd = 0;
-        int tot;
-        
-        checkSum = "";
-        
-        if (text.length() == len) {
-            
-            for (int i=len-1; i>=0; i-=2) {
-                even += Integer.parseInt(text.substring(i, i+1));
-                if (i <= 0) break;
-                odd += Integer.parseInt(text.substring(i-1, i));
+    /**
+     * Checks that the text starts with 12 digits.  Any further characters
+     * are ignored, as they are by <tt>encode</tt>.
+     */
+    public int validate(CharSequence text) {
+        return validateDigits(text, 12);
+    }
+    
+    /**
+     * Returns the index of the first non-digit among the first <tt>len</tt>
+     * characters of <tt>text</tt>, the length of <tt>text</tt> if it is
+     * shorter than <tt>len</tt>, or -1 if neither applies.
+     */
+    protected int validateDigits(CharSequence text, int len) {
+        int i = indexOfIllegalCharacter(text, 0, Math.min(len, text.length()));
+        if (i < 0 && text.length() < len) {
+            return text.length();
+        }
+        return i;
+    }
+    
+    /**
+     * Accepts the digits.
+     */
+    protected boolean isLegalCharacter(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+    
+    /**
+     * Throws a BarcodeException unless the first <tt>len</tt> characters of
+     * <tt>text</tt> are digits.
+     */
+    protected static void requireDigits(CharSequence text, int len) throws BarcodeException {
+        if (text.length() < len) {
+            throw new BarcodeException("Barcode requires " + len + " digits");
+        }
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new BarcodeException("Invalid character in barcode");
             }
-            even *= 3;
-            tot = even + odd;
-            even = tot/10;
-            odd = tot%10;
-            if (odd != 0) even++;
-            
-            checkSum = new Integer(even*10 - tot).toString();
         }
     }
     
-    protected String augmentWithChecksum(String text) throws BarcodeException {
-        // Checksum has been computed before inserting B codes and center bars
-        return text + checkSum;
+    /**
+     * Returns the check digit of the first <tt>len</tt> digits of <tt>text</tt>.
+     */
+    protected static char checkDigit(CharSequence text, int len) {
+        return (char) ('0' + Checksums.mod10(text, 0, len));
     }
     
-    protected String postprocess(String text) {
-        return text;
+    /**
+     * Appends the check digit to the layout text built by <tt>preprocess</tt>.
+     *
+     * @deprecated <tt>encode</tt> no longer calls this method.
+     */
+    @Deprecated
+    protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+        // The digits are recovered from the symbol layout built by preprocess,
+        // so nothing is kept in the strategy between the two steps.  The
+        // system digit is not encoded as bars; it is given by the positions
+        // of the B codes.
+        int total = 0;
+        int weight = 3;
+        int pattern = 0;
+        for (int i = text.length() - 1; i >= 0; i--) {
+            char c = text.charAt(i);
+            if (c == 'C') {
+                continue;
+            }
+            if (c >= 'a') {
+                pattern |= 1 << i;
+                c -= 'a' - '0';
+            }
+            total += (c - '0') * weight;
+            weight = 4 - weight;
+        }
+        for (int systemDigit = 0; systemDigit < parity.length; systemDigit++) {
+            if (parity[systemDigit] == pattern) {
+                total += systemDigit * weight;
+                break;
+            }
+        }
+        text.append((char) ('0' + (10 - total % 10) % 10));
+    }
+    
+    /**
+     * Does nothing.
+     *
+     * @deprecated <tt>encode</tt> no longer calls this method.
+     */
+    @Deprecated
+    protected void postprocess(StringBuilder text) {
+    }
+    
+    /**
+     * Returns the number of digits encoded before the check digit: 12 for
+     * EAN-13, 7 for EAN-8.
+     */
+    int getDataLength() {
+        return 12;
+    }
+    
+    /**
+     * Writes the symbol directly from the digits, choosing the A or B widths
+     * of each left-side digit from the parity pattern of the system digit,
+     * without building the intermediate layout text.
+     */
+    void encode(CharSequence textToEncode, boolean checked, ModuleWriter writer, ModuleSink sink) throws BarcodeException {
+        int len = getDataLength();
+        requireDigits(textToEncode, len);
+        // EAN-13 has an odd number of digits with the check digit; the first
+        // one is given by the parity pattern instead of being encoded.
+        int first = (len + 1) & 1;
+        int pattern = first == 1 ? parity[textToEncode.charAt(0) - '0'] : 0;
+        int center = first + (len + 1 - first) / 2;
+        
+        writer.begin(sink, this);
+        writer.appendSpace(getMarginWidth());
+        writer.append(normalGuard);
+        for (int i = first; i < center; i++) {
+            int digit = textToEncode.charAt(i) - '0';
+            writer.append((pattern & (1 << (i - first))) != 0 ? leftB[digit] : leftA[digit]);
+        }
+        writer.append(centerGuard);
+        for (int i = center; i < len; i++) {
+            writer.append(right[textToEncode.charAt(i) - '0']);
+        }
+        if (checked) {
+            writer.append(right[checkDigit(textToEncode, len) - '0']);
+        }
+        writer.append(normalGuard);
+        writer.appendSpace(getMarginWidth());
+        writer.finish();
     }
     
     /*
@@ -131,72 +277,23 @@ public class Ean13 extends AbstractBarcodeStrategy implements java.io.Serializab
       A  B  B  A  B  A         9
      
      */
-    protected String preprocess(String text) {
-        if (text.length() < 12) return text;
-        text = text.substring(0, 12);
-        
-        computeChecksum(text, 12);
-        char[] t = (text.substring(1, 7) + "C" + text.substring(7)).toCharArray();
-        switch (text.charAt(0)) {
-            case '0':
-                // A A A A A A
-                break;
-            case '1':
-                // A A B A B B
-                t[2] = bPattern[getCharacterCode(t[2]).check];
-                t[4] = bPattern[getCharacterCode(t[4]).check];
-                t[5] = bPattern[getCharacterCode(t[5]).check];
-                break;
-            case '2':
-                // A A B B A B
-                t[2] = bPattern[getCharacterCode(t[2]).check];
-                t[3] = bPattern[getCharacterCode(t[3]).check];
-                t[5] = bPattern[getCharacterCode(t[5]).check];
-                break;
-            case '3':
-                // A A B B B A
-                t[2] = bPattern[getCharacterCode(t[2]).check];
-                t[3] = bPattern[getCharacterCode(t[3]).check];
-                t[4] = bPattern[getCharacterCode(t[4]).check];
-                break;
-            case '4':
-                // A B A A B B
-                t[1] = bPattern[getCharacterCode(t[1]).check];
-                t[4] = bPattern[getCharacterCode(t[4]).check];
-                t[5] = bPattern[getCharacterCode(t[5]).check];
-                break;
-            case '5':
-                // A B B A A B
-                t[1] = bPattern[getCharacterCode(t[1]).check];
-                t[2] = bPattern[getCharacterCode(t[2]).check];
-                t[5] = bPattern[getCharacterCode(t[5]).check];
-                break;
-            case '6':
-                // A B B B A A
-                t[1] = bPattern[getCharacterCode(t[1]).check];
-                t[2] = bPattern[getCharacterCode(t[2]).check];
-                t[3] = bPattern[getCharacterCode(t[3]).check];
-                break;
-            case '7':
-                // A B A B A B
-                t[1] = bPattern[getCharacterCode(t[1]).check];
-                t[3] = bPattern[getCharacterCode(t[3]).check];
-                t[5] = bPattern[getCharacterCode(t[5]).check];
-                break;
-            case '8':
-                // A B A B B A
-                t[1] = bPattern[getCharacterCode(t[1]).check];
-                t[3] = bPattern[getCharacterCode(t[3]).check];
-                t[4] = bPattern[getCharacterCode(t[4]).check];
-                break;
-            case '9':
-                // A B B A B A
-                t[1] = bPattern[getCharacterCode(t[1]).check];
-                t[2] = bPattern[getCharacterCode(t[2]).check];
-                t[4] = bPattern[getCharacterCode(t[4]).check];
-                break;
+    /**
+     * Builds the layout text of the symbol: the six left-side digits, as
+     * A codes or as the B codes <tt>a</tt> to <tt>j</tt>, the center guard
+     * <tt>C</tt> and the right-side digits.
+     *
+     * @deprecated <tt>encode</tt> no longer calls this method.
+     */
+    @Deprecated
+    protected void preprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+        requireDigits(text, 12);
+        int pattern = parity[text.charAt(0) - '0'];
+        for (int i = 0; i < 6; i++) {
+            char c = text.charAt(i + 1);
+            out.append((pattern & (1 << i)) != 0 ? bPattern[c - '0'] : c);
         }
-        return new String(t);
+        out.append('C');
+        out.append(text, 7, 12);
     }
     
     protected boolean isInterleaved() {
@@ -218,9 +315,38 @@ public class Ean13 extends AbstractBarcodeStrategy implements java.io.Serializab
         return 11;
     }
     
+    /**
+     * Writes a 2 or 5 digit add-on: the start guard, then the first
+     * <tt>len</tt> digits separated by delimiters, each in its A or B
+     * representation as given by the bits of <tt>pattern</tt>.
+     */
+    static void writeAddOn(CharSequence text, int len, int pattern, int margin, ModuleWriter writer) {
+        writer.appendSpace(margin);
+        writer.append(addOnGuard);
+        for (int i = 0; i < len; i++) {
+            if (i > 0) {
+                writer.append(addOnDelimiter);
+            }
+            int digit = text.charAt(i) - '0';
+            writer.append((pattern & (1 << i)) != 0 ? leftB[digit] : leftA[digit]);
+        }
+        writer.appendSpace(margin);
+    }
+    
     protected String getBarcodeLabelText(String text) {
-        if (text.length() < 12) return text;
-        return text.substring(0, 12) + checkSum;
+        return getBarcodeLabelText(text, 12);
+    }
+    
+    /**
+     * Returns the first <tt>len</tt> characters of <tt>text</tt> followed by
+     * their check digit, or <tt>text</tt> itself if that is what it already
+     * holds or if it is shorter than <tt>len</tt>.
+     */
+    protected static String getBarcodeLabelText(String text, int len) {
+        if (text.length() < len) return text;
+        char check = checkDigit(text, len);
+        if (text.length() == len + 1 && text.charAt(len) == check) return text;
+        return new StringBuilder(len + 1).append(text, 0, len).append(check).toString();
     }
     
 }
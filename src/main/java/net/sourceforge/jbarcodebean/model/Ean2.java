@@ -0,0 +1,65 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.ModuleSink;
+
+/**
+ * EAN-2 add-on implementation, the 2 digit supplement printed to the right
+ * of an EAN-13 or UPC-A symbol.
+ * If less than 2 digits are supplied, the symbol is invalid; only the first
+ * 2 digits are considered.  The add-on has no check digit: the value of
+ * the digits modulo 4 selects the A or B representation of each digit
+ * instead.
+ *
+ * @since 1.2.1
+ */
+public class Ean2 extends Ean13 {
+
+    /* Positions of the B codes for each value modulo 4: AA, AB, BA, BB */
+    private static final int[] parity = {0x00, 0x02, 0x01, 0x03};
+
+    /**
+     * Always returns {@link BarcodeStrategy#NO_CHECKSUM}.
+     */
+    public int requiresChecksum() {
+        return NO_CHECKSUM;
+    }
+
+    /**
+     * Checks that the text starts with 2 digits.  Any further characters
+     * are ignored, as they are by <tt>encode</tt>.
+     */
+    public int validate(CharSequence text) {
+        return validateDigits(text, 2);
+    }
+
+    void encode(CharSequence textToEncode, boolean checked, ModuleWriter writer, ModuleSink sink) throws BarcodeException {
+        requireDigits(textToEncode, 2);
+        int value = (textToEncode.charAt(0) - '0') * 10 + textToEncode.charAt(1) - '0';
+        writer.begin(sink, this);
+        writeAddOn(textToEncode, 2, parity[value & 3], getMarginWidth(), writer);
+        writer.finish();
+    }
+
+    protected String getBarcodeLabelText(String text) {
+        return text.length() > 2 ? text.substring(0, 2) : text;
+    }
+}
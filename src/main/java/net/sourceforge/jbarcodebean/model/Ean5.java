@@ -0,0 +1,74 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.ModuleSink;
+
+/**
+ * EAN-5 add-on implementation, the 5 digit supplement printed to the right
+ * of an EAN-13 or UPC-A symbol.
+ * If less than 5 digits are supplied, the symbol is invalid; only the first
+ * 5 digits are considered.  The add-on has no check digit: a checksum of
+ * the digits selects the A or B representation of each digit instead.
+ *
+ * @since 1.2.1
+ */
+public class Ean5 extends Ean13 {
+
+    /* Positions of the B codes for each checksum value, see Checksums.ean5 */
+    private static final int[] parity = {
+        0x03,   // B B A A A
+        0x05,   // B A B A A
+        0x09,   // B A A B A
+        0x11,   // B A A A B
+        0x06,   // A B B A A
+        0x0c,   // A A B B A
+        0x18,   // A A A B B
+        0x0a,   // A B A B A
+        0x12,   // A B A A B
+        0x14    // A A B A B
+    };
+
+    /**
+     * Always returns {@link BarcodeStrategy#NO_CHECKSUM}.
+     */
+    public int requiresChecksum() {
+        return NO_CHECKSUM;
+    }
+
+    /**
+     * Checks that the text starts with 5 digits.  Any further characters
+     * are ignored, as they are by <tt>encode</tt>.
+     */
+    public int validate(CharSequence text) {
+        return validateDigits(text, 5);
+    }
+
+    void encode(CharSequence textToEncode, boolean checked, ModuleWriter writer, ModuleSink sink) throws BarcodeException {
+        requireDigits(textToEncode, 5);
+        writer.begin(sink, this);
+        writeAddOn(textToEncode, 5, parity[Checksums.ean5(textToEncode, 0, 5)], getMarginWidth(), writer);
+        writer.finish();
+    }
+
+    protected String getBarcodeLabelText(String text) {
+        return text.length() > 5 ? text.substring(0, 5) : text;
+    }
+}
@@ -15,6 +15,8 @@
 
 package net.sourceforge.jbarcodebean.model;
 
+import net.sourceforge.jbarcodebean.BarcodeException;
+
 /**
  * EAN-8 barcode implementation.
  * If less than 7 digits are supplied, the symbol is invalid
@@ -25,17 +27,33 @@ package net.sourceforge.jbarcodebean.model;
  */
 public class Ean8 extends Ean13 {
     
-    protected String preprocess(String text) {
-        if (text.length() < 7) return text;
-        text = text.substring(0, 7);
+    /**
+     * Checks that the text starts with 7 digits.  Any further characters
+     * are ignored, as they are by <tt>encode</tt>.
+     */
+    public int validate(CharSequence text) {
+        return validateDigits(text, 7);
+    }
 
-        computeChecksum(text, 7);
-        char[] t = (text.substring(0, 4) + "C" + text.substring(4)).toCharArray();
-        return new String(t);
-    }    
+    /**
+     * Builds the layout text of the symbol: four digits, the center guard
+     * <tt>C</tt> and three digits.
+     *
+     * @deprecated <tt>encode</tt> no longer calls this method.
+     */
+    @Deprecated
+    protected void preprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+        requireDigits(text, 7);
+        out.append(text, 0, 4);
+        out.append('C');
+        out.append(text, 4, 7);
+    }
+
+    int getDataLength() {
+        return 7;
+    }
 
     protected String getBarcodeLabelText(String text) {
-        if (text.length() < 7) return text;
-        return text.substring(0, 7) + checkSum;
+        return getBarcodeLabelText(text, 7);
     }
 }
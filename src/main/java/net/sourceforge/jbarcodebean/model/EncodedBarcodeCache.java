@@ -0,0 +1,204 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+/**
+ * A size-bounded cache of encoded barcodes, keyed by the strategy, the text
+ * and the checksum flag.  Equal strategies, such as two instances of
+ * {@link Code39} with the same ratio, share entries; other strategies are
+ * equal only to themselves, so share a strategy instance between the
+ * callers of a cache.  When the cache is full the least
+ * recently used barcode is evicted, and barcodes may optionally expire a
+ * fixed time after they were encoded.  Texts that cannot be encoded are not
+ * cached.  The cache is thread-safe and may be shared by several
+ * {@link CachingBarcodeStrategy} instances.
+ * <p>
+ * Every call returns its own copy of the cached {@link EncodedBarcode}.
+ * The copies share the packed widths, which cannot be changed, so a caller
+ * that modifies its barcode does not affect the barcode seen by others.
+ *
+ * @since 1.2.1
+ */
+public class EncodedBarcodeCache {
+
+  private final int maximumSize;
+  private final long timeToLive;
+  private final Map<Key, Entry> entries;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Creates a cache holding at most <tt>maximumSize</tt> barcodes, which do
+   * not expire.
+   */
+  public EncodedBarcodeCache(int maximumSize) {
+    this(maximumSize, 0, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Creates a cache holding at most <tt>maximumSize</tt> barcodes, each of
+   * which expires <tt>timeToLive</tt> after it was encoded.
+   *
+   * @param maximumSize The maximum number of barcodes held.
+   * @param timeToLive How long a barcode is kept, or 0 to keep it until it is
+   * evicted.
+   * @param unit The unit of <tt>timeToLive</tt>.
+   */
+  public EncodedBarcodeCache(int maximumSize, long timeToLive, TimeUnit unit) {
+    if (maximumSize < 1 || timeToLive < 0) {
+      throw new IllegalArgumentException();
+    }
+    this.maximumSize = maximumSize;
+    this.timeToLive = unit.toNanos(timeToLive);
+    this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        if (size() > EncodedBarcodeCache.this.maximumSize) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns a copy of the cached barcode for the given strategy, text and
+   * checksum flag, encoding and caching it if it is not present.
+   *
+   * @throws BarcodeException If the text cannot be encoded by
+   * <tt>strategy</tt>.
+   */
+  public EncodedBarcode encode(BarcodeStrategy strategy, String text, boolean checked) throws BarcodeException {
+    Key key = new Key(strategy, text, checked);
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (timeToLive == 0 || System.nanoTime() - entry.created < timeToLive) {
+          hits++;
+          return new EncodedBarcode(entry.barcode);
+        }
+        entries.remove(key);
+        evictions++;
+      }
+      misses++;
+    }
+    // Encode outside the lock; if two threads miss on the same key, both
+    // encode and the later result replaces the earlier one.
+    EncodedBarcode barcode = strategy.encode(text, checked);
+    synchronized (entries) {
+      entries.put(key, new Entry(barcode, System.nanoTime()));
+    }
+    return new EncodedBarcode(barcode);
+  }
+
+  /**
+   * Removes all barcodes from the cache.  The counters are not reset.
+   */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /** Returns the number of barcodes in the cache, including expired ones not yet removed. */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /** Returns the maximum number of barcodes held. */
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Returns how long a barcode is kept after it was encoded, in the given
+   * unit, or 0 if barcodes do not expire.
+   */
+  public long getTimeToLive(TimeUnit unit) {
+    return unit.convert(timeToLive, TimeUnit.NANOSECONDS);
+  }
+
+  /** Returns the number of requests answered from the cache. */
+  public long getHitCount() {
+    synchronized (entries) {
+      return hits;
+    }
+  }
+
+  /** Returns the number of requests that had to encode the text. */
+  public long getMissCount() {
+    synchronized (entries) {
+      return misses;
+    }
+  }
+
+  /** Returns the number of barcodes removed because the cache was full or they had expired. */
+  public long getEvictionCount() {
+    synchronized (entries) {
+      return evictions;
+    }
+  }
+
+  private static final class Key {
+
+    private final BarcodeStrategy strategy;
+    private final String text;
+    private final boolean checked;
+
+    Key(BarcodeStrategy strategy, String text, boolean checked) {
+      this.strategy = strategy;
+      this.text = text;
+      this.checked = checked;
+    }
+
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return checked == other.checked && text.equals(other.text) && strategy.equals(other.strategy);
+    }
+
+    public int hashCode() {
+      return (strategy.hashCode() * 31 + text.hashCode()) * 2 + (checked ? 1 : 0);
+    }
+  }
+
+  private static final class Entry {
+
+    final EncodedBarcode barcode;
+    final long created;
+
+    Entry(EncodedBarcode barcode, long created) {
+      this.barcode = barcode;
+      this.created = created;
+    }
+  }
+}
@@ -20,8 +20,8 @@ package net.sourceforge.jbarcodebean.model;
 
 /**
  * This class, which implements the {@link BarcodeStrategy} interface,
- * knows how to encode the 3:1 (wide)
- * variant of the Extended Code 3 of 9 barcode type.
+ * knows how to encode the Extended Code 3 of 9 barcode type.  The wide:narrow ratio
+ * is 3:1 unless another ratio is given to the constructor.
  */
 public class ExtendedCode39 extends BaseCode39 implements java.io.Serializable {
 
@@ -123,34 +123,67 @@ public class ExtendedCode39 extends BaseCode39 implements java.io.Serializable {
   };
 
   /**
-   * This implementation of <tt>getCodes</tt> returns {@link BaseCode39#codes}.
+   * The conversions indexed by ASCII character.  Characters without a
+   * conversion, which are encoded as themselves, map to <tt>null</tt>.
    */
-  protected CharacterCode[] getCodes() {
+  private static final String[] expansions = new String[128];
+
+  static {
+    for (int i = 0; i < conversions.length; i++) {
+      expansions[conversions[i].from] = conversions[i].to;
+    }
+  }
+
+  /**
+   * Creates a strategy with a wide:narrow ratio of 3:1.
+   */
+  public ExtendedCode39() {
+    this(3);
+  }
+
+  /**
+   * Creates a strategy with the given wide:narrow ratio.
+   *
+   * @see TwoWidthBarcodeStrategy#TwoWidthBarcodeStrategy(double)
+   *
+   * @since 1.2.1
+   */
+  public ExtendedCode39(double ratio) {
+    super(ratio);
+  }
+
+  /**
+   * This implementation of <tt>getTemplateCodes</tt> returns {@link BaseCode39#codes}.
+   */
+  protected CharacterCode[] getTemplateCodes() {
     return BaseCode39.codes;
   }
 
+  /**
+   * Accepts the ASCII characters that are converted to Code 39 characters,
+   * as well as the Code 39 characters themselves.
+   */
+  protected boolean isLegalCharacter(char ch) {
+    return (ch < 128 && expansions[ch] != null) || super.isLegalCharacter(ch);
+  }
+
   /**
    * Converts ASCII to Code 39 characters.
    */
-  protected String preprocess(String text) {
-    // Convert ASCII to extended Code 39 codes.
-    String toText = "";
+  protected void preprocess(CharSequence text, StringBuilder out) {
+    // Convert ASCII to extended Code 39 codes; each character expands to
+    // at most two.
     int len = text.length();
+    out.ensureCapacity(out.length() + len * 2);
     for (int i = 0; i < len; i++) {
       char ch = text.charAt(i);
-      boolean found = false;
-      for (int j = 0; j < conversions.length; j++) {
-        if (ch == conversions[j].from) {
-          toText += conversions[j].to;
-          found = true;
-          break;
-        }
-      }
-      if (!found) {
-        toText += ch;
+      String to = ch < 128 ? expansions[ch] : null;
+      if (to != null) {
+        out.append(to);
+      } else {
+        out.append(ch);
       }
     }
-    return toText;
   }
 
   /**
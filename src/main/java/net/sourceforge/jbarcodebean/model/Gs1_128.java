@@ -0,0 +1,243 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+
+/**
+ * GS1-128 barcode strategy.  The text is a sequence of element strings,
+ * each an Application Identifier (AI) in parentheses followed by its data,
+ * for example <tt>(01)09501101530003(17)250101(10)AB-123</tt>.  The
+ * parentheses are not encoded: the symbol starts with FNC1, and an FNC1
+ * separator follows every element string whose length is not predefined
+ * by its AI, unless it is the last one.  A parenthesis in alphanumeric
+ * data must be written <tt>\(</tt>, as an unescaped one starts the next
+ * element string: <tt>(10)A\(1)</tt> encodes the batch number <tt>A(1)</tt>.
+ * The label shows the text as given, without the backslashes.
+ * <p>
+ * The length and character set of the data are checked against a table
+ * indexed by the first two digits of the AI, which also gives the number of
+ * digits in the AI.  Where the AIs sharing two leading digits differ, the
+ * table holds the widest of their rules.  Encoding is done by
+ * {@link Code128Optimized}, so numeric runs stay in code set C.
+ *
+ * @since 1.2.1
+ */
+public class Gs1_128 extends Code128Optimized {
+
+  /** Data may hold digits only */
+  private static final boolean N = true;
+  /** Data may hold any character of the GS1 subset of ISO 646 */
+  private static final boolean X = false;
+
+  private static final AiRule[] rules = new AiRule[100];
+
+  static {
+    //   prefix  AI digits  min data  max data  chars  predefined length
+    rule(0,  2, 18, 18, N, true);     // SSCC
+    rule(1,  2, 14, 14, N, true);     // GTIN
+    rule(2,  2, 14, 14, N, true);     // GTIN of contained trade items
+    rule(10, 2, 1,  20, X, false);    // Batch or lot number
+    rule(11, 2, 6,  6,  N, true);     // Production date
+    rule(12, 2, 6,  6,  N, true);     // Due date
+    rule(13, 2, 6,  6,  N, true);     // Packaging date
+    rule(15, 2, 6,  6,  N, true);     // Best before date
+    rule(16, 2, 6,  6,  N, true);     // Sell by date
+    rule(17, 2, 6,  6,  N, true);     // Expiration date
+    rule(20, 2, 2,  2,  N, true);     // Internal product variant
+    rule(21, 2, 1,  20, X, false);    // Serial number
+    rule(22, 2, 1,  20, X, false);    // Consumer product variant
+    rule(23, 3, 1,  28, X, false);    // 235: Third party controlled serial
+    rule(24, 3, 1,  30, X, false);    // 240 - 243: Additional identification
+    rule(25, 3, 1,  30, X, false);    // 250 - 255: Serial and component numbers
+    rule(30, 2, 1,  8,  N, false);    // Variable count
+    for (int prefix = 31; prefix <= 36; prefix++) {
+      rule(prefix, 4, 6, 6, N, true); // Trade and logistic measures
+    }
+    rule(37, 2, 1,  8,  N, false);    // Count of trade items
+    rule(39, 4, 1,  18, N, false);    // 3900 - 3959: Amounts payable
+    rule(40, 3, 1,  30, X, false);    // 400 - 403: Order and routing
+    rule(41, 3, 13, 13, N, true);     // 410 - 417: Global Location Numbers
+    rule(42, 3, 1,  20, X, false);    // 420 - 427: Postal and origin codes
+    rule(43, 4, 1,  70, X, false);    // 4300 - 4326: Shipping details
+    rule(70, 4, 1,  30, X, false);    // 7001 - 7040: Product details
+    rule(71, 3, 1,  20, X, false);    // 710 - 716: National healthcare numbers
+    rule(72, 4, 1,  30, X, false);    // 7230 - 7241: Certification
+    rule(80, 4, 1,  70, X, false);    // 8001 - 8030: Coupons, assets and others
+    rule(81, 4, 1,  70, X, false);    // 8110 - 8112: Coupon codes
+    rule(82, 4, 1,  70, X, false);    // 8200: Extended packaging URL
+    rule(90, 2, 1,  30, X, false);    // Mutually agreed information
+    for (int prefix = 91; prefix <= 99; prefix++) {
+      rule(prefix, 2, 1, 90, X, false); // Company internal information
+    }
+  }
+
+  /** Bitset of the GS1 subset of ISO 646 allowed in alphanumeric data */
+  private static final long[] alphanumeric = new long[2];
+
+  static {
+    String chars = "!\"%&'()*+,-./0123456789:;<=>?ABCDEFGHIJKLMNOPQRSTUVWXYZ_abcdefghijklmnopqrstuvwxyz";
+    for (int i = 0; i < chars.length(); i++) {
+      char c = chars.charAt(i);
+      alphanumeric[c >>> 6] |= 1L << c;
+    }
+  }
+
+  private static void rule(int prefix, int aiDigits, int minData, int maxData, boolean numeric, boolean predefined) {
+    rules[prefix] = new AiRule(aiDigits, minData, maxData, numeric, predefined);
+  }
+
+  /**
+   * Checks the element strings against the AI table.  The index returned
+   * for data of the wrong length is that of the character after the data.
+   */
+  public int validate(CharSequence text) {
+    return parse(text, null);
+  }
+
+  /**
+   * Converts the element strings to Code 128 data, with FNC1 in front and
+   * after each element string of variable length, and encodes it in the
+   * shortest form.
+   */
+  protected void preprocess(CharSequence text, StringBuilder preprocessed) throws BarcodeException {
+    StringBuilder data = ModuleWriter.scratch().scratch;
+    data.setLength(0);
+    int i = parse(text, data);
+    if (i >= 0) {
+      throw new BarcodeException("Invalid GS1-128 element string at index " + i);
+    }
+    super.preprocess(data, preprocessed);
+  }
+
+  /**
+   * Removes the backslashes that escape parentheses in the data.
+   */
+  protected String getBarcodeLabelText(String text) {
+    return text.replace("\\(", "(");
+  }
+
+  /**
+   * Parses the bracketed element strings of <tt>text</tt>, appending the
+   * Code 128 data to <tt>data</tt> unless it is <tt>null</tt>.  The data
+   * is only complete if the text is valid.
+   *
+   * @return -1 if the text is valid, otherwise the index of the first error.
+   */
+  private static int parse(CharSequence text, StringBuilder data) {
+    int len = text.length();
+    if (len == 0) {
+      return 0;
+    }
+    if (data != null) {
+      data.append(FNC_1);
+    }
+    boolean separate = false;
+    int i = 0;
+    while (i < len) {
+      if (text.charAt(i) != '(') {
+        return i;
+      }
+      int ai = i + 1;
+      if (ai + 2 > len || !isDigit(text.charAt(ai)) || !isDigit(text.charAt(ai + 1))) {
+        return ai;
+      }
+      AiRule rule = rules[(text.charAt(ai) - '0') * 10 + (text.charAt(ai + 1) - '0')];
+      if (rule == null) {
+        return ai;
+      }
+      int close = ai + rule.aiDigits;
+      for (int j = ai + 2; j < close; j++) {
+        if (j >= len || !isDigit(text.charAt(j))) {
+          return j;
+        }
+      }
+      if (close >= len || text.charAt(close) != ')') {
+        return close;
+      }
+
+      if (data != null) {
+        if (separate) {
+          data.append(FNC_1);
+        }
+        data.append(text, ai, close);
+      }
+
+      // The data characters are counted apart from the text, as an escaped
+      // parenthesis takes two characters of the text.
+      int end = close + 1;
+      int count = 0;
+      int excess = -1;
+      while (end < len && text.charAt(end) != '(') {
+        char c = text.charAt(end);
+        int next = end + 1;
+        if (c == '\\' && !rule.numeric) {
+          if (next == len || text.charAt(next) != '(') {
+            return end;
+          }
+          c = '(';
+          next++;
+        } else if (rule.numeric ? !isDigit(c) : c >= 128 || (alphanumeric[c >>> 6] & (1L << c)) == 0) {
+          return end;
+        }
+        if (count++ == rule.maxData) {
+          excess = end;
+        }
+        if (data != null) {
+          data.append(c);
+        }
+        end = next;
+      }
+      if (count < rule.minData) {
+        return end;
+      }
+      if (excess >= 0) {
+        return excess;
+      }
+      separate = !rule.predefined;
+      i = end;
+    }
+    return -1;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * The rules for the AIs that share their first two digits.
+   */
+  private static final class AiRule {
+
+    final int aiDigits;
+    final int minData;
+    final int maxData;
+    final boolean numeric;
+    /** True if the element string needs no FNC1 separator after it */
+    final boolean predefined;
+
+    AiRule(int aiDigits, int minData, int maxData, boolean numeric, boolean predefined) {
+      this.aiDigits = aiDigits;
+      this.minData = minData;
+      this.maxData = maxData;
+      this.numeric = numeric;
+      this.predefined = predefined;
+    }
+  }
+}
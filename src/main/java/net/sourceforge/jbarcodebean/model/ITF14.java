@@ -0,0 +1,124 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+/**
+ * This class, which implements the {@link BarcodeStrategy} interface,
+ * knows how to encode the ITF-14 barcode type: a GTIN-14 in Interleaved
+ * Code 2 of 5, framed by bearer bars.  The wide:narrow ratio is 3:1 unless
+ * another ratio is given to the constructor.
+ * <p>
+ * The text must start with 13 digits; the check digit is always calculated,
+ * even when no checksum is requested, and any characters after the 13th are
+ * ignored.  The bearer bars are
+ * reported by {@link EncodedBarcode#getBearerBarWidth}, and passed to
+ * {@link net.sourceforge.jbarcodebean.ModuleSink#begin} when the barcode
+ * is streamed.
+ *
+ * @since 1.2.1
+ */
+public class ITF14 extends Interleaved25 implements java.io.Serializable {
+
+  /** Width of the bearer bars, in narrow elements */
+  private static final int BEARER_BAR_WIDTH = 5;
+
+  /** Quiet zone between the bearer bars and the symbol, in narrow elements */
+  private static final int QUIET_ZONE_WIDTH = 10;
+
+  /**
+   * Creates a strategy with a wide:narrow ratio of 3:1.
+   */
+  public ITF14() {
+    this(3);
+  }
+
+  /**
+   * Creates a strategy with the given wide:narrow ratio.
+   *
+   * @see TwoWidthBarcodeStrategy#TwoWidthBarcodeStrategy(double)
+   */
+  public ITF14(double ratio) {
+    super(ratio);
+  }
+
+  /**
+   * Always returns {@link BarcodeStrategy#MANDATORY_CHECKSUM}.
+   */
+  public int requiresChecksum() {
+    return MANDATORY_CHECKSUM;
+  }
+
+  /**
+   * Returns the width of the bearer bars: five narrow elements.
+   */
+  protected int getBearerBarWidth() {
+    return BEARER_BAR_WIDTH * getNarrowWidth();
+  }
+
+  /**
+   * Returns <tt>-1</tt> if <tt>text</tt> starts with 13 digits.
+   */
+  public int validate(CharSequence text) {
+    int i = indexOfIllegalCharacter(text, 0, Math.min(13, text.length()));
+    if (i < 0 && text.length() < 13) {
+      return text.length();
+    }
+    return i;
+  }
+
+  /**
+   * Appends the first 13 digits of <tt>text</tt> followed by their GTIN
+   * check digit, which is part of the GTIN-14 whether or not a checksum is
+   * requested.
+   */
+  protected void preprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+    Ean13.requireDigits(text, 13);
+    out.append(text, 0, 13).append(Ean13.checkDigit(text, 13));
+  }
+
+  /**
+   * Does nothing, as <tt>preprocess</tt> has already appended the check
+   * digit.
+   */
+  protected void augmentWithChecksum(StringBuilder text) {
+  }
+
+  /**
+   * Does nothing, as the text always holds 14 digits.
+   */
+  protected void postprocess(StringBuilder text) {
+  }
+
+  /**
+   * Returns the width of the bearer bars plus the quiet zone inside them.
+   */
+  protected byte getMarginWidth() {
+    return (byte) ((BEARER_BAR_WIDTH + QUIET_ZONE_WIDTH) * getNarrowWidth());
+  }
+
+  /**
+   * Returns the 13 digits followed by their check digit.
+   */
+  protected String getBarcodeLabelText(String text) {
+    return Ean13.getBarcodeLabelText(text, 13);
+  }
+}
@@ -18,14 +18,17 @@
  */
 package net.sourceforge.jbarcodebean.model;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import net.sourceforge.jbarcodebean.BarcodeException;
 
 /**
  * This class, which implements the {@link BarcodeStrategy} interface,
- * knows how to encode the 3:1 (wide)
- * variant of the Interleaved Code 2 of 5 barcode type.
+ * knows how to encode the Interleaved Code 2 of 5 barcode type.  The
+ * wide:narrow ratio is 3:1 unless another ratio is given to the constructor.
  */
-public class Interleaved25 extends AbstractBarcodeStrategy implements java.io.Serializable {
+public class Interleaved25 extends TwoWidthBarcodeStrategy implements java.io.Serializable {
 
   private static CharacterCode[] codes = {
     new CharacterCode('1', new byte[] {3,1,1,1,3}, 1),
@@ -42,6 +45,34 @@ public class Interleaved25 extends AbstractBarcodeStrategy implements java.io.Se
     new CharacterCode('B', new byte[] {3,1,1}, -1)      // Stop
   };
 
+  /**
+   * Interleaved widths of every digit pair, by the array returned by
+   * getCodes, shared by all the strategies that return the same array
+   */
+  private static final ConcurrentMap<CharacterCode[], PairTable> pairTables =
+      new ConcurrentHashMap<CharacterCode[], PairTable>();
+
+  /** Interleaved widths of every digit pair, for the codes it was built from */
+  private transient PairTable pairTable;
+
+  /**
+   * Creates a strategy with a wide:narrow ratio of 3:1.
+   */
+  public Interleaved25() {
+    this(3);
+  }
+
+  /**
+   * Creates a strategy with the given wide:narrow ratio.
+   *
+   * @see TwoWidthBarcodeStrategy#TwoWidthBarcodeStrategy(double)
+   *
+   * @since 1.2.1
+   */
+  public Interleaved25(double ratio) {
+    super(ratio);
+  }
+
   /**
    * Always returns {@link BarcodeStrategy#OPTIONAL_CHECKSUM}.
    */
@@ -51,60 +82,41 @@ public class Interleaved25 extends AbstractBarcodeStrategy implements java.io.Se
   }
 
   /**
-   * This implementation of <tt>getCodes</tt> returns an array of
+   * This implementation of <tt>getTemplateCodes</tt> returns an array of
    * {@link AbstractBarcodeStrategy.CharacterCode CharacterCode} objects
-   * for the wide Interleaved Code25 format.
+   * for the 3:1 Interleaved Code25 format.
    */
-  protected CharacterCode[] getCodes() {
+  protected CharacterCode[] getTemplateCodes() {
     return Interleaved25.codes;
   }
 
   /**
-   * Returns a String containing the checksum-encoded version of the text passed
-   * to the method.
+   * Appends the check digit to the text passed to the method.
    * Start and End sentinels must NOT be included in the text passed to this method.
    */
-  protected String augmentWithChecksum(String text) throws BarcodeException {
-    int check1 = 0;
-    int check2 = 0;
-    CharacterCode cc;
-    for (int i = 0; i < text.length(); i++) {
-      char ch = text.charAt(i);
-      cc = getCharacterCode(ch);            // get code by character
-      if (cc == null) {
-        throw new BarcodeException("Invalid character in barcode");
-      }
-      // Exclude start and end sentinels from checksum
-      if (cc.check > 0) {
-        if ((i + text.length()) % 2 == 0) {
-          check1 += cc.check;
-        } else {
-          check2 += cc.check;
-        }
-      }
+  protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+    int checkDigit = Checksums.mod10(text);
+    if (checkDigit < 0) {
+      throw new BarcodeException("Invalid character in barcode");
     }
-    check2 *= 3;
-    int checkDigit = (10 - ((check1 + check2) % 10)) % 10;
-    text = text + new Integer(checkDigit).toString();
-    return text;
+    text.append((char) ('0' + checkDigit));
   }
 
   /**
    * Adds a leading zero if the length of <tt>text</tt> is odd.
    */
-  protected String postprocess(String text) {
+  protected void postprocess(StringBuilder text) {
     if (text.length() % 2 != 0) {
       // Length is odd; add a leading zero.
-      text = "0" + text;
+      text.insert(0, '0');
     }
-    return text;
   }
 
   /**
-   * No preprocessing performed. <tt>text</tt> is returned unmodified.
+   * No preprocessing performed. <tt>text</tt> is appended unmodified.
    */
-  protected String preprocess(String text) {
-    return text;
+  protected void preprocess(CharSequence text, StringBuilder out) throws BarcodeException {
+    out.append(text);
   }
 
   /**
@@ -129,10 +141,88 @@ public class Interleaved25 extends AbstractBarcodeStrategy implements java.io.Se
   }
 
   /**
-   * Always returns 11 (eleven).
+   * Writes the barcode a digit pair at a time, copying the ten interleaved
+   * widths of each pair from a table of all 100 pairs.
    */
-  protected byte getMarginWidth() {
-    return 11;
+  void write(CharSequence text, ModuleWriter writer) throws BarcodeException {
+    CodeTable codeTable = getCodeTable();
+    byte[][] pairs = getPairTable().pairs;
+    int len = text.length();
+
+    writer.appendSpace(getMarginWidth());
+    appendGuard(writer, getLeadingGuard());
+    writer.append(codeTable.get(getStartSentinel()).widths);
+    int i = 0;
+    for (; i + 1 < len; i += 2) {
+      writer.append(pairs[digit(text.charAt(i)) * 10 + digit(text.charAt(i + 1))]);
+    }
+    if (i < len) {
+      digit(text.charAt(i));
+      throw new BarcodeException("Odd number of characters in interleaved barcode");
+    }
+    writer.append(codeTable.get(getStopSentinel()).widths);
+    appendGuard(writer, getTrailingGuard());
+    writer.appendSpace(getMarginWidth());
+  }
+
+  private static int digit(char ch) throws BarcodeException {
+    int digit = ch - '0';
+    if (digit < 0 || digit > 9) {
+      throw new BarcodeException("Invalid character in barcode");
+    }
+    return digit;
+  }
+
+  /**
+   * Returns the pair table for the array currently returned by
+   * {@link #getCodes}.  The table of an array is built once and shared by
+   * every instance that returns it.  The table is immutable, so an
+   * unsynchronized race merely builds it twice.
+   */
+  private PairTable getPairTable() {
+    CharacterCode[] codes = getCodes();
+    PairTable table = pairTable;
+    if (table == null || table.codes != codes) {
+      table = pairTables.get(codes);
+      if (table == null) {
+        table = new PairTable(codes, getCodeTable());
+        if (pairTables.size() < MAX_SHARED_TABLES) {
+          PairTable shared = pairTables.putIfAbsent(codes, table);
+          if (shared != null) {
+            table = shared;
+          }
+        }
+      }
+      pairTable = table;
+    }
+    return table;
+  }
+
+  /**
+   * The widths of each digit pair, indexed by ten times the first digit plus
+   * the second.  The bars come from the first digit and the spaces from the
+   * second.
+   */
+  private static final class PairTable {
+
+    final CharacterCode[] codes;
+    final byte[][] pairs = new byte[100][];
+
+    PairTable(CharacterCode[] codes, CodeTable codeTable) {
+      this.codes = codes;
+      for (int first = 0; first < 10; first++) {
+        byte[] bars = codeTable.get((char) ('0' + first)).widths;
+        for (int second = 0; second < 10; second++) {
+          byte[] spaces = codeTable.get((char) ('0' + second)).widths;
+          byte[] pair = new byte[bars.length * 2];
+          for (int k = 0; k < bars.length; k++) {
+            pair[2 * k] = bars[k];
+            pair[2 * k + 1] = spaces[k];
+          }
+          pairs[first * 10 + second] = pair;
+        }
+      }
+    }
   }
 
   /**
@@ -25,27 +25,10 @@ package net.sourceforge.jbarcodebean.model;
  */
 public class Interleaved25_2to1 extends Interleaved25 implements java.io.Serializable {
 
-  private static CharacterCode[] codes = {
-    new CharacterCode('1', new byte[] {2,1,1,1,2}, 1),
-    new CharacterCode('2', new byte[] {1,2,1,1,2}, 2),
-    new CharacterCode('3', new byte[] {2,2,1,1,1}, 3),
-    new CharacterCode('4', new byte[] {1,1,2,1,2}, 4),
-    new CharacterCode('5', new byte[] {2,1,2,1,1}, 5),
-    new CharacterCode('6', new byte[] {1,2,2,1,1}, 6),
-    new CharacterCode('7', new byte[] {1,1,1,2,2}, 7),
-    new CharacterCode('8', new byte[] {2,1,1,2,1}, 8),
-    new CharacterCode('9', new byte[] {1,2,1,2,1}, 9),
-    new CharacterCode('0', new byte[] {1,1,2,2,1}, 0),
-    new CharacterCode('A', new byte[] {1,1,1,1}, -1),   // Start
-    new CharacterCode('B', new byte[] {2,1,1}, -1)      // Stop
-  };
-
   /**
-   * This implementation of <tt>getCodes</tt> returns an array of
-   * {@link AbstractBarcodeStrategy.CharacterCode CharacterCode} objects
-   * for the narrow Interleaved Code25 format.
+   * Creates a strategy with a wide:narrow ratio of 2:1.
    */
-  protected CharacterCode[] getCodes() {
-    return Interleaved25_2to1.codes;
+  public Interleaved25_2to1() {
+    super(2);
   }
 }
@@ -59,41 +59,52 @@ public class MSI extends AbstractBarcodeStrategy implements java.io.Serializable
   }
 
   /**
-   * Returns a String containing the checksum-encoded version of the text passed
-   * to the method.
+   * Appends the mod 10 check digit to the text.
    * Start and End sentinels must NOT be included in the text passed to this method.
    */
-  protected String augmentWithChecksum(String text) throws BarcodeException {
-    String newNum = "";
-    for (int i = text.length() - 1; i >= 0; i -= 2 ) {
-      newNum = text.charAt(i) + newNum;
-    }
-    int check1 = Integer.parseInt(newNum) * 2;
-    newNum = new Integer(check1).toString();
-    int check2 = 0;
-    for (int i = 0; i < newNum.length(); i++) {
-      check2 += Integer.parseInt(newNum.substring(i, i + 1));
-    }
-    for (int i = text.length() - 2; i >= 0; i -= 2 ) {
-      check2 += Integer.parseInt(text.substring(i, i + 1));
+  protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+    text.append((char) ('0' + mod10(text)));
+  }
+
+  /**
+   * Computes the Luhn mod 10 check digit with {@link Checksums#luhn}.
+   *
+   * @throws BarcodeException If <tt>text</tt> contains a character that is
+   * not a digit.
+   */
+  static int mod10(CharSequence text) throws BarcodeException {
+    return requireCheck(Checksums.luhn(text));
+  }
+
+  /**
+   * Computes the IBM mod 11 check value with {@link Checksums#mod11}.  A
+   * check value of 10 is encoded as the two digits "10".
+   *
+   * @throws BarcodeException If <tt>text</tt> contains a character that is
+   * not a digit.
+   */
+  static int mod11(CharSequence text) throws BarcodeException {
+    return requireCheck(Checksums.mod11(text));
+  }
+
+  private static int requireCheck(int check) throws BarcodeException {
+    if (check < 0) {
+      throw new BarcodeException("Invalid character in barcode");
     }
-    int checkDigit = (10 - ((check2) % 10)) % 10;
-    text = text + new Integer(checkDigit).toString();
-    return text;
+    return check;
   }
 
   /**
-   * Does nothing except return the String passed to the method.
+   * Does nothing.
    */
-  protected String postprocess(String text) {
-    return text;
+  protected void postprocess(StringBuilder text) {
   }
 
   /**
-   * Does nothing except return the String passed to the method.
+   * Does nothing except append the text passed to the method.
    */
-  protected String preprocess(String text) {
-    return text;
+  protected void preprocess(CharSequence text, StringBuilder out) {
+    out.append(text);
   }
 
   /**
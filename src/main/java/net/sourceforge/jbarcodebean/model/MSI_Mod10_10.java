@@ -0,0 +1,40 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+
+/**
+ * This class, which implements the {@link BarcodeStrategy} interface,
+ * knows how to encode the MSI barcode type with two mod 10 check digits.
+ * The second check digit is computed over the text followed by the first.
+ *
+ * @since 1.2.1
+ */
+public class MSI_Mod10_10 extends MSI implements java.io.Serializable {
+
+  /**
+   * Appends both mod 10 check digits to the text.
+   * Start and End sentinels must NOT be included in the text passed to this method.
+   */
+  protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+    text.append((char) ('0' + mod10(text)));
+    text.append((char) ('0' + mod10(text)));
+  }
+}
@@ -0,0 +1,39 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+
+/**
+ * This class, which implements the {@link BarcodeStrategy} interface,
+ * knows how to encode the MSI barcode type with an IBM mod 11 check digit.
+ * When the check value is 10 the two digits "10" are appended.
+ *
+ * @since 1.2.1
+ */
+public class MSI_Mod11 extends MSI implements java.io.Serializable {
+
+  /**
+   * Appends the mod 11 check digit to the text.
+   * Start and End sentinels must NOT be included in the text passed to this method.
+   */
+  protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+    text.append(mod11(text));
+  }
+}
@@ -0,0 +1,190 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeElement;
+import net.sourceforge.jbarcodebean.ModuleBuffer;
+import net.sourceforge.jbarcodebean.ModuleSink;
+
+/**
+ * Working state of one encode: a text buffer for the preprocessing stages and
+ * a writer that forwards bars and spaces to a {@link ModuleSink}.  Element
+ * types follow the position in the barcode, as in the original array layout
+ * (the left margin is a space at position 0), and runs of the same type, such
+ * as a trailing space followed by the right margin, are merged before they
+ * reach the sink.  One instance is kept per thread and reused.
+ */
+final class ModuleWriter {
+
+  private static final ThreadLocal<ModuleWriter> writers = new ThreadLocal<ModuleWriter>();
+
+  /** Buffer holding the text as it passes through the preprocessing stages */
+  final StringBuilder text = new StringBuilder(64);
+  /** Buffer collecting the bars and spaces when no sink is supplied */
+  final ModuleBuffer modules = new ModuleBuffer();
+  /**
+   * Buffer for text that a stage builds before passing it on, such as the
+   * data parsed from GS1-128 element strings
+   */
+  final StringBuilder scratch = new StringBuilder(64);
+
+  /* Working arrays of the shortest-symbol search of Code128Optimized */
+  private int[] costs = new int[0];
+  private byte[] steps = new byte[0];
+
+  private ModuleSink sink;
+  private boolean inUse;
+  private int position;
+  private int pendingType;
+  private int pendingWidth;
+
+  /**
+   * Returns the writer of the current thread, or a new one if that writer is
+   * already in use further up the stack.
+   */
+  static ModuleWriter acquire() {
+    ModuleWriter writer = writers.get();
+    if (writer == null) {
+      writer = new ModuleWriter();
+      writers.set(writer);
+    } else if (writer.inUse) {
+      writer = new ModuleWriter();
+    }
+    writer.inUse = true;
+    writer.text.setLength(0);
+    return writer;
+  }
+
+  /**
+   * Returns the writer of the current thread for its scratch buffers,
+   * without acquiring it.  The scratch buffers and working arrays may be
+   * used while the writer is in use, but only by code that calls no
+   * overridable method until it is done with them, so that no other stage
+   * can use them at the same time.
+   */
+  static ModuleWriter scratch() {
+    ModuleWriter writer = writers.get();
+    if (writer == null) {
+      writer = new ModuleWriter();
+      writers.set(writer);
+    }
+    return writer;
+  }
+
+  /**
+   * Returns a working array of at least <tt>length</tt> ints, with
+   * unspecified contents.
+   */
+  int[] costs(int length) {
+    if (costs.length < length) {
+      costs = new int[Math.max(length, costs.length * 2)];
+    }
+    return costs;
+  }
+
+  /**
+   * Returns a working array of at least <tt>length</tt> bytes, with
+   * unspecified contents.
+   */
+  byte[] steps(int length) {
+    if (steps.length < length) {
+      steps = new byte[Math.max(length, steps.length * 2)];
+    }
+    return steps;
+  }
+
+  /**
+   * Starts writing a barcode of <tt>strategy</tt> to <tt>sink</tt>.
+   */
+  void begin(ModuleSink sink, AbstractBarcodeStrategy strategy) {
+    this.sink = sink;
+    sink.begin(strategy.getNarrowWidth(), strategy.getBearerBarWidth());
+    position = 0;
+    pendingType = -1;
+    pendingWidth = 0;
+  }
+
+  /**
+   * Flushes the last run to the sink.
+   */
+  void finish() {
+    if (pendingWidth > 0) {
+      sink.appendElement(pendingType, pendingWidth);
+      pendingWidth = 0;
+    }
+  }
+
+  /**
+   * Makes the writer available for the next encode on this thread.
+   */
+  void release() {
+    sink = null;
+    inUse = false;
+  }
+
+  /**
+   * Appends an element whose type is given by its position.
+   */
+  void append(int width) {
+    add((position & 1) == 0 ? BarcodeElement.TYPE_SPACE : BarcodeElement.TYPE_BAR, width);
+  }
+
+  /**
+   * Appends a sequence of elements whose types are given by their positions.
+   */
+  void append(byte[] widths) {
+    for (int i = 0; i < widths.length; i++) {
+      append(widths[i]);
+    }
+  }
+
+  /**
+   * Appends two characters interleaved: the bars come from <tt>bars</tt>
+   * and the spaces from <tt>spaces</tt>.
+   */
+  void appendInterleaved(byte[] bars, byte[] spaces) {
+    for (int i = 0; i < bars.length; i++) {
+      add(BarcodeElement.TYPE_BAR, bars[i]);
+      add(BarcodeElement.TYPE_SPACE, spaces[i]);
+    }
+  }
+
+  /**
+   * Appends a space regardless of its position, as used for the margins.
+   */
+  void appendSpace(int width) {
+    add(BarcodeElement.TYPE_SPACE, width);
+  }
+
+  private void add(int type, int width) {
+    position++;
+    if (width == 0) {
+      return;
+    }
+    if (type == pendingType) {
+      pendingWidth += width;
+      return;
+    }
+    if (pendingWidth > 0) {
+      sink.appendElement(pendingType, pendingWidth);
+    }
+    pendingType = type;
+    pendingWidth = width;
+  }
+}
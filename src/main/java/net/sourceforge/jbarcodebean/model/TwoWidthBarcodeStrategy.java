@@ -0,0 +1,217 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Base class for barcode types whose bars and spaces are either narrow or
+ * wide, such as Code 39, Codabar and Interleaved Code 2 of 5.  The ratio of
+ * the wide to the narrow width is set when the strategy is created, and may
+ * be any multiple of 1/2, 1/3 or 1/4 from 2:1 to 3:1.
+ * <p>
+ * The widths of an encoded barcode are whole numbers of units.  For a whole
+ * ratio a unit is the narrow width; otherwise the narrow width is split
+ * into {@link #getNarrowWidth} units, so a 2.5:1 barcode has narrow
+ * elements of 2 units and wide elements of 5.  The margins are scaled in the
+ * same way.  The narrow width is reported by
+ * {@link net.sourceforge.jbarcodebean.EncodedBarcode#getNarrowWidth} and
+ * passed to {@link net.sourceforge.jbarcodebean.ModuleSink#begin}, and
+ * JBarcodeBean draws the barcode with a unit width of its narrowest bar
+ * width divided by the narrow width.
+ * <p>
+ * Subclasses supply the 3:1 table from {@link #getTemplateCodes}.  The table
+ * for every other ratio is derived from it once and shared by all
+ * strategies that use the same ratio.
+ *
+ * @since 1.2.1
+ */
+public abstract class TwoWidthBarcodeStrategy extends AbstractBarcodeStrategy implements java.io.Serializable {
+
+  /** The smallest wide:narrow ratio */
+  public static final double MIN_RATIO = 2.0;
+  /** The largest wide:narrow ratio */
+  public static final double MAX_RATIO = 3.0;
+
+  /** The largest number of units a narrow element is split into */
+  private static final int MAX_NARROW_WIDTH = 4;
+
+  /** Width of the margins, in narrow elements */
+  private static final int MARGIN_WIDTH = 11;
+
+  /** Tables derived from the templates, by template and ratio */
+  private static final ConcurrentMap<TableKey, CharacterCode[]> scaledCodes =
+      new ConcurrentHashMap<TableKey, CharacterCode[]>();
+
+  private final int narrowWidth;
+  private final int wideWidth;
+
+  /** The table for this strategy's ratio, looked up on first use */
+  private transient CharacterCode[] codes;
+
+  /**
+   * Creates a strategy with the given wide:narrow ratio.
+   *
+   * @param ratio The width of a wide element divided by that of a narrow
+   * one.
+   *
+   * @throws IllegalArgumentException If the ratio is outside the range 2 to
+   * 3, or is not a multiple of 1/2, 1/3 or 1/4.
+   */
+  protected TwoWidthBarcodeStrategy(double ratio) {
+    if (!(ratio >= MIN_RATIO && ratio <= MAX_RATIO)) {
+      throw new IllegalArgumentException("Ratio must be between " + MIN_RATIO + " and " + MAX_RATIO + ": " + ratio);
+    }
+    narrowWidth = getNarrowWidth(ratio);
+    wideWidth = (int) Math.round(ratio * narrowWidth);
+  }
+
+  /**
+   * Returns the smallest number of units for the narrow width that makes
+   * the wide width a whole number of units.
+   */
+  private static int getNarrowWidth(double ratio) {
+    for (int narrow = 1; narrow <= MAX_NARROW_WIDTH; narrow++) {
+      if (Math.abs(Math.round(ratio * narrow) - ratio * narrow) < 1e-9) {
+        return narrow;
+      }
+    }
+    throw new IllegalArgumentException("Ratio must be a multiple of 1/2, 1/3 or 1/4: " + ratio);
+  }
+
+  /**
+   * Returns the wide:narrow ratio.
+   */
+  public double getRatio() {
+    return (double) wideWidth / narrowWidth;
+  }
+
+  /**
+   * Returns the width of a narrow element, in units.  This is 1 unless the
+   * ratio is not a whole number.
+   */
+  public int getNarrowWidth() {
+    return narrowWidth;
+  }
+
+  /**
+   * Returns the width of a wide element, in units.
+   */
+  public int getWideWidth() {
+    return wideWidth;
+  }
+
+  /**
+   * Subclasses implement this method to return the table for the 3:1 ratio,
+   * in which every width is either 1 (narrow) or 3 (wide).  The array must
+   * not change over the life of the strategy.
+   */
+  protected abstract CharacterCode[] getTemplateCodes();
+
+  /**
+   * Returns the table of {@link #getTemplateCodes} with the narrow and wide
+   * widths of this strategy's ratio.
+   */
+  protected CharacterCode[] getCodes() {
+    CharacterCode[] result = codes;
+    if (result == null) {
+      result = scale(getTemplateCodes(), narrowWidth, wideWidth);
+      codes = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns <tt>template</tt> with each width of 1 replaced by
+   * <tt>narrow</tt> and each other width by <tt>wide</tt>.  The result is
+   * cached, so each table is derived once per ratio.
+   */
+  static CharacterCode[] scale(CharacterCode[] template, int narrow, int wide) {
+    if (narrow == 1 && wide == 3) {
+      return template;
+    }
+    TableKey key = new TableKey(template, narrow, wide);
+    CharacterCode[] result = scaledCodes.get(key);
+    if (result == null) {
+      result = new CharacterCode[template.length];
+      for (int i = 0; i < template.length; i++) {
+        byte[] widths = template[i].widths;
+        byte[] scaled = new byte[widths.length];
+        for (int j = 0; j < widths.length; j++) {
+          scaled[j] = (byte) (widths[j] == 1 ? narrow : wide);
+        }
+        result[i] = new CharacterCode(template[i].character, scaled, template[i].check);
+      }
+      CharacterCode[] existing = scaledCodes.putIfAbsent(key, result);
+      if (existing != null) {
+        result = existing;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a margin of 11 narrow elements.
+   */
+  protected byte getMarginWidth() {
+    return (byte) (MARGIN_WIDTH * narrowWidth);
+  }
+
+  /**
+   * Returns <tt>true</tt> if <tt>o</tt> is a strategy of the same class with
+   * the same ratio, as such strategies encode every text alike.
+   */
+  public boolean equals(Object o) {
+    if (o == null || o.getClass() != getClass()) {
+      return false;
+    }
+    TwoWidthBarcodeStrategy other = (TwoWidthBarcodeStrategy) o;
+    return narrowWidth == other.narrowWidth && wideWidth == other.wideWidth;
+  }
+
+  public int hashCode() {
+    return getClass().hashCode() * 31 + wideWidth * MAX_NARROW_WIDTH + narrowWidth;
+  }
+
+  private static final class TableKey {
+
+    private final CharacterCode[] template;
+    private final int narrow;
+    private final int wide;
+
+    TableKey(CharacterCode[] template, int narrow, int wide) {
+      this.template = template;
+      this.narrow = narrow;
+      this.wide = wide;
+    }
+
+    public boolean equals(Object o) {
+      if (!(o instanceof TableKey)) {
+        return false;
+      }
+      TableKey other = (TableKey) o;
+      return template == other.template && narrow == other.narrow && wide == other.wide;
+    }
+
+    public int hashCode() {
+      return (System.identityHashCode(template) * 31 + wide) * 31 + narrow;
+    }
+  }
+}
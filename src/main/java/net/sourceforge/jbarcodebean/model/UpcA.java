@@ -0,0 +1,47 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+/**
+ * UPC-A barcode implementation.
+ * If less than 11 digits are supplied, the symbol is invalid.
+ * Only the first 11 digits are considered: the checksum (12th digit) is
+ * always generated (MANDATORY_CHECKSUM).  A UPC-A symbol is an EAN-13
+ * symbol whose system digit is 0.
+ *
+ * @since 1.2.1
+ */
+public class UpcA extends Ean13 {
+
+    /**
+     * Checks that the text starts with 11 digits.  Any further characters
+     * are ignored, as they are by <tt>encode</tt>.
+     */
+    public int validate(CharSequence text) {
+        return validateDigits(text, 11);
+    }
+
+    int getDataLength() {
+        return 11;
+    }
+
+    protected String getBarcodeLabelText(String text) {
+        return getBarcodeLabelText(text, 11);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.ModuleSink;
+
+/**
+ * UPC-E barcode implementation.
+ * The text must start with the number system digit, 0 or 1, followed by the
+ * six digits of the zero-suppressed number; any further characters are
+ * ignored.  The check digit is that of the equivalent UPC-A number
+ * (see {@link #expand}) and is always generated (MANDATORY_CHECKSUM).  It is
+ * not encoded as bars, but selects together with the number system the
+ * A or B representation of each of the six digits.
+ *
+ * @since 1.2.1
+ */
+public class UpcE extends Ean13 {
+
+    /* Positions of the B codes for each check digit with number system 0; number system 1 uses the complement */
+    private static final int[] parity = {
+        0x07,   // B B B A A A
+        0x0b,   // B B A B A A
+        0x13,   // B B A A B A
+        0x23,   // B B A A A B
+        0x0d,   // B A B B A A
+        0x19,   // B A A B B A
+        0x31,   // B A A A B B
+        0x15,   // B A B A B A
+        0x25,   // B A B A A B
+        0x29    // B A A B A B
+    };
+
+    private static final byte[] stopGuard = {1,1,1,1,1,1};
+
+    /**
+     * Expands a UPC-E number into the equivalent 11 digit UPC-A number,
+     * without the check digit.
+     *
+     * @param text The number system digit followed by the six digits of the
+     * UPC-E number.
+     *
+     * @throws BarcodeException If <tt>text</tt> does not start with 0 or 1
+     * followed by six digits.
+     */
+    public static String expand(CharSequence text) throws BarcodeException {
+        requireNumber(text);
+        StringBuilder out = new StringBuilder(11);
+        expand(text, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the expansion of the first seven digits of <tt>text</tt>,
+     * which must already have been checked, to <tt>out</tt>.  The last of
+     * the six digits determines where the suppressed zeros are reinserted.
+     */
+    static void expand(CharSequence text, StringBuilder out) {
+        char last = text.charAt(6);
+        switch (last) {
+        case '0':
+        case '1':
+        case '2':
+            out.append(text, 0, 3).append(last).append("0000").append(text, 3, 6);
+            break;
+        case '3':
+            out.append(text, 0, 4).append("00000").append(text, 4, 6);
+            break;
+        case '4':
+            out.append(text, 0, 5).append("00000").append(text.charAt(5));
+            break;
+        default:
+            out.append(text, 0, 6).append("0000").append(last);
+        }
+    }
+
+    /**
+     * Throws a BarcodeException unless <tt>text</tt> starts with 0 or 1
+     * followed by six digits.
+     */
+    private static void requireNumber(CharSequence text) throws BarcodeException {
+        requireDigits(text, 7);
+        if (text.charAt(0) > '1') {
+            throw new BarcodeException("Invalid number system in UPC-E barcode");
+        }
+    }
+
+    /**
+     * Checks that the text starts with 0 or 1 followed by six digits.  Any
+     * further characters are ignored, as they are by <tt>encode</tt>.
+     */
+    public int validate(CharSequence text) {
+        int i = validateDigits(text, 7);
+        if (i < 0 && text.charAt(0) > '1') {
+            return 0;
+        }
+        return i;
+    }
+
+    /**
+     * Writes the six digits between the normal guard and the UPC-E stop
+     * guard.  The check digit is always used, whatever <tt>checked</tt> is,
+     * since the symbol cannot be read without it.
+     */
+    void encode(CharSequence textToEncode, boolean checked, ModuleWriter writer, ModuleSink sink) throws BarcodeException {
+        requireNumber(textToEncode);
+        StringBuilder expansion = writer.text;
+        expand(textToEncode, expansion);
+        int pattern = parity[checkDigit(expansion, 11) - '0'];
+        if (textToEncode.charAt(0) == '1') {
+            pattern ^= 0x3f;
+        }
+
+        writer.begin(sink, this);
+        writer.appendSpace(getMarginWidth());
+        writer.append(normalGuard);
+        for (int i = 0; i < 6; i++) {
+            int digit = textToEncode.charAt(i + 1) - '0';
+            writer.append((pattern & (1 << i)) != 0 ? leftB[digit] : leftA[digit]);
+        }
+        writer.append(stopGuard);
+        writer.appendSpace(getMarginWidth());
+        writer.finish();
+    }
+
+    /**
+     * Returns the number system digit, the six digits and the check digit.
+     */
+    protected String getBarcodeLabelText(String text) {
+        if (validate(text) >= 0) {
+            return text;
+        }
+        StringBuilder expansion = new StringBuilder(11);
+        expand(text, expansion);
+        return new StringBuilder(8).append(text, 0, 7).append(checkDigit(expansion, 11)).toString();
+    }
+}
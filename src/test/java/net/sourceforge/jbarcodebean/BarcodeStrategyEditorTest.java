@@ -0,0 +1,86 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean;
+
+import net.sourceforge.jbarcodebean.model.Code39;
+import net.sourceforge.jbarcodebean.model.Codabar;
+import net.sourceforge.jbarcodebean.model.ExtendedCode39;
+import net.sourceforge.jbarcodebean.model.ITF14;
+import net.sourceforge.jbarcodebean.model.Interleaved25;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class BarcodeStrategyEditorTest {
+
+  private final BarcodeStrategyEditor editor = new BarcodeStrategyEditor();
+
+  @Test
+  public void tagsRoundTrip() {
+    for (String tag : editor.getTags()) {
+      editor.setAsText(tag);
+      assertEquals(tag, editor.getAsText());
+    }
+  }
+
+  @Test
+  public void ratiosAreShownAsFractions() {
+    Object[][] cases = {
+        {new Code39(2.5), "Code 39 5:2", "new jbarcodebean.Code39(5.0 / 2)"},
+        {new ExtendedCode39(8.0 / 3), "Ext Code 39 8:3", "new jbarcodebean.ExtendedCode39(8.0 / 3)"},
+        {new Interleaved25(2.25), "Interleaved 25 9:4", "new jbarcodebean.Interleaved25(9.0 / 4)"},
+        {new Codabar(2.75), "Codabar 11:4", "new jbarcodebean.Codabar(11.0 / 4)"},
+        {new ITF14(2.5), "ITF-14 5:2", "new jbarcodebean.ITF14(5.0 / 2)"},
+        {new ITF14(), "ITF-14", "new jbarcodebean.ITF14()"},
+        {new Code39(), "Code 39 3:1", "new jbarcodebean.Code39()"}
+    };
+    for (Object[] c : cases) {
+      editor.setValue(c[0]);
+      assertEquals(c[1], editor.getAsText());
+      assertEquals(c[2], editor.getJavaInitializationString());
+      editor.setAsText((String) c[1]);
+      assertEquals((String) c[1], c[0], editor.getValue());
+    }
+  }
+
+  @Test
+  public void wholeRatiosOfTheThreeToOneClasses() {
+    // Shown like the 2:1 class, which encodes alike
+    editor.setValue(new Codabar(2));
+    assertEquals("Codabar 2:1", editor.getAsText());
+    assertEquals("new jbarcodebean.Codabar(2.0)", editor.getJavaInitializationString());
+  }
+
+  @Test
+  public void unsupportedRatiosAreRejected() {
+    try {
+      editor.setAsText("Code 39 7:2");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void unknownTextDefaultsToCode39() {
+    editor.setAsText("Code 40 5:2");
+    assertEquals(new Code39(), editor.getValue());
+  }
+}
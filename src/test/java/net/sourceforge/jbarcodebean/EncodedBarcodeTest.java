@@ -0,0 +1,167 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+public class EncodedBarcodeTest {
+
+  private static final byte[] WIDTHS = {10, 1, 1, 3, 2, 10};
+
+  @Test
+  public void packedWidthsAreReadBack() {
+    EncodedBarcode barcode = new EncodedBarcode(WIDTHS.clone(), BarcodeElement.TYPE_SPACE, "label");
+    assertEquals(6, barcode.getElementCount());
+    assertEquals(27, barcode.getTotalWidth());
+    for (int i = 0; i < WIDTHS.length; i++) {
+      assertEquals(WIDTHS[i], barcode.getWidth(i));
+      assertEquals(i % 2 == 0 ? BarcodeElement.TYPE_SPACE : BarcodeElement.TYPE_BAR, barcode.getType(i));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void elementsAreCreatedOnDemand() {
+    EncodedBarcode barcode = new EncodedBarcode(WIDTHS.clone(), BarcodeElement.TYPE_SPACE, "label");
+    assertNull(barcode.elements);
+    BarcodeElement[] elements = barcode.getElements();
+    assertNotNull(elements);
+    assertSame(elements, barcode.elements);
+    assertSame(elements, barcode.getElements());
+    assertEquals(WIDTHS.length, barcode.elements.length);
+    for (int i = 0; i < WIDTHS.length; i++) {
+      assertEquals(barcode.getWidth(i), barcode.elements[i].getWidth());
+      assertEquals(barcode.getType(i), barcode.elements[i].getType());
+    }
+  }
+
+  @Test
+  public void elementsAreMerged() {
+    BarcodeElement[] elements = {
+        new BarcodeElement(BarcodeElement.TYPE_SPACE, 10),
+        new BarcodeElement(BarcodeElement.TYPE_BAR, 1),
+        new BarcodeElement(BarcodeElement.TYPE_SPACE, 1),
+        new BarcodeElement(BarcodeElement.TYPE_SPACE, 2),
+        new BarcodeElement(BarcodeElement.TYPE_BAR, 3)
+    };
+    EncodedBarcode barcode = new EncodedBarcode(elements, "label");
+    assertEquals(4, barcode.getElementCount());
+    assertEquals(3, barcode.getWidth(2));
+    assertEquals(BarcodeElement.TYPE_BAR, barcode.getType(3));
+  }
+
+  @Test
+  public void widthsAreReadUnsigned() {
+    BarcodeElement[] elements = {
+        new BarcodeElement(BarcodeElement.TYPE_BAR, 100),
+        new BarcodeElement(BarcodeElement.TYPE_BAR, 100),
+        new BarcodeElement(BarcodeElement.TYPE_SPACE, 55)
+    };
+    EncodedBarcode barcode = new EncodedBarcode(elements, "label");
+    assertEquals(2, barcode.getElementCount());
+    assertEquals(200, barcode.getWidth(0));
+    assertEquals(255, barcode.getTotalWidth());
+    assertSame(elements, barcode.getElements());
+  }
+
+  @Test
+  public void zeroWidthElementsAreDropped() {
+    BarcodeElement[] elements = {
+        new BarcodeElement(BarcodeElement.TYPE_SPACE, 0),
+        new BarcodeElement(BarcodeElement.TYPE_BAR, 2),
+        new BarcodeElement(BarcodeElement.TYPE_SPACE, 0),
+        new BarcodeElement(BarcodeElement.TYPE_BAR, 1)
+    };
+    EncodedBarcode barcode = new EncodedBarcode(elements, "label");
+    assertEquals(1, barcode.getElementCount());
+    assertEquals(BarcodeElement.TYPE_BAR, barcode.getType(0));
+    assertEquals(3, barcode.getWidth(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void mergedRunWiderThan255IsRejected() {
+    BarcodeElement[] elements = {
+        new BarcodeElement(BarcodeElement.TYPE_BAR, 100),
+        new BarcodeElement(BarcodeElement.TYPE_BAR, 100),
+        new BarcodeElement(BarcodeElement.TYPE_SPACE, 300)
+    };
+    new EncodedBarcode(elements, "label");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeWidthIsRejected() {
+    new EncodedBarcode(new BarcodeElement[] {new BarcodeElement(BarcodeElement.TYPE_BAR, -1)}, "label");
+  }
+
+  @Test
+  public void moduleBufferReadsWidthsUnsigned() {
+    ModuleBuffer buffer = new ModuleBuffer();
+    buffer.appendElement(BarcodeElement.TYPE_SPACE, 255);
+    buffer.appendElement(BarcodeElement.TYPE_BAR, 128);
+    assertEquals(255, buffer.getWidth(0));
+    assertEquals(383, buffer.getTotalWidth());
+    EncodedBarcode barcode = buffer.toEncodedBarcode("label");
+    assertEquals(128, barcode.getWidth(1));
+    assertEquals(383, barcode.getTotalWidth());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void moduleBufferRejectsWidthsOver255() {
+    new ModuleBuffer().appendElement(BarcodeElement.TYPE_BAR, 256);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void moduleBufferRejectsZeroWidth() {
+    new ModuleBuffer().appendElement(BarcodeElement.TYPE_BAR, 0);
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void copiesDoNotShareElements() {
+    EncodedBarcode barcode = new EncodedBarcode(WIDTHS.clone(), BarcodeElement.TYPE_SPACE, "label");
+    barcode.getElements()[0] = null;
+    EncodedBarcode copy = new EncodedBarcode(barcode);
+    assertNull(copy.elements);
+    assertNotNull(copy.getElements()[0]);
+  }
+
+  @Test
+  public void serializationKeepsElements() throws Exception {
+    EncodedBarcode barcode = new EncodedBarcode(WIDTHS.clone(), BarcodeElement.TYPE_SPACE, "label");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(barcode);
+    out.close();
+    EncodedBarcode copy = (EncodedBarcode) new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    assertEquals("label", copy.barcodeLabelText);
+    assertEquals(WIDTHS.length, copy.getElementCount());
+    assertEquals(WIDTHS.length, copy.getElements().length);
+    assertEquals(3, copy.getElements()[3].getWidth());
+  }
+}
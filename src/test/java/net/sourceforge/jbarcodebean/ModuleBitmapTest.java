@@ -0,0 +1,155 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import net.sourceforge.jbarcodebean.model.AbstractBarcodeStrategy;
+import net.sourceforge.jbarcodebean.model.Code128;
+import net.sourceforge.jbarcodebean.model.Ean13;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class ModuleBitmapTest {
+
+  /** Appends alternating spaces and bars of the given widths, starting with a space */
+  private static void append(ModuleSink sink, int... widths) {
+    for (int i = 0; i < widths.length; i++) {
+      sink.appendElement(i % 2 == 0 ? BarcodeElement.TYPE_SPACE : BarcodeElement.TYPE_BAR, widths[i]);
+    }
+  }
+
+  private static void assertModules(String expected, ModuleBitmap bitmap) {
+    StringBuilder actual = new StringBuilder();
+    for (int i = 0; i < bitmap.getModuleCount(); i++) {
+      actual.append(bitmap.isBar(i) ? '1' : '0');
+    }
+    assertEquals(expected, actual.toString());
+  }
+
+  private static String repeat(char c, int n) {
+    StringBuilder sb = new StringBuilder(n);
+    for (int i = 0; i < n; i++) {
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void modulesFollowTheElements() {
+    ModuleBitmap bitmap = new ModuleBitmap();
+    append(bitmap, 2, 1, 1, 3, 0, 0, 2);
+    assertModules("0010111" + "00", bitmap);
+  }
+
+  @Test
+  public void barsCrossWordBoundaries() {
+    // A bar ending exactly on a boundary, one spanning a boundary, and one
+    // covering a whole word
+    ModuleBitmap bitmap = new ModuleBitmap(1);
+    append(bitmap, 60, 4, 2, 4, 56, 70, 1);
+    assertEquals(197, bitmap.getModuleCount());
+    assertModules(repeat('0', 60) + repeat('1', 4) + "00" + repeat('1', 4)
+        + repeat('0', 56) + repeat('1', 70) + "0", bitmap);
+
+    long[] words = bitmap.toLongArray();
+    assertEquals(4, words.length);
+    assertEquals(0xfL << 60, words[0]);
+    assertEquals(0x3cL | (-1L << 62), words[1]);
+    assertEquals(-1L, words[2]);
+    assertEquals(0xfL, words[3]);
+  }
+
+  @Test
+  public void matchesBitSetForRandomElements() {
+    Random random = new Random(42);
+    for (int round = 0; round < 200; round++) {
+      ModuleBitmap bitmap = new ModuleBitmap(random.nextInt(100) + 1);
+      BitSet expected = new BitSet();
+      int length = 0;
+      int count = random.nextInt(60);
+      for (int i = 0; i < count; i++) {
+        int width = random.nextInt(i % 7 == 0 ? 130 : 5);
+        if (i % 2 == 1) {
+          expected.set(length, length + width);
+        }
+        length += width;
+        bitmap.appendElement(i % 2 == 0 ? BarcodeElement.TYPE_SPACE : BarcodeElement.TYPE_BAR, width);
+      }
+      assertEquals(length, bitmap.getModuleCount());
+      assertEquals(expected, bitmap.toBitSet());
+      assertEquals((length + 63) / 64, bitmap.toLongArray().length);
+    }
+  }
+
+  @Test
+  public void trailingSpacesCount() {
+    ModuleBitmap a = new ModuleBitmap();
+    append(a, 1, 2, 3);
+    ModuleBitmap b = new ModuleBitmap();
+    append(b, 1, 2, 4);
+    assertFalse(a.equals(b));
+    assertEquals(a.toBitSet(), b.toBitSet());
+  }
+
+  @Test
+  public void clearedBitmapIsReusable() {
+    ModuleBitmap reused = new ModuleBitmap(8);
+    append(reused, 0, 200, 5);
+    reused.clear();
+    assertEquals(0, reused.getModuleCount());
+    append(reused, 3, 1, 80);
+
+    ModuleBitmap fresh = new ModuleBitmap();
+    append(fresh, 3, 1, 80);
+    assertTrue(reused.equals(fresh));
+    assertEquals(fresh.hashCode(), reused.hashCode());
+    assertModules("0001" + repeat('0', 80), reused);
+  }
+
+  @Test
+  public void indexBeyondTheLastModuleIsRejected() {
+    ModuleBitmap bitmap = new ModuleBitmap();
+    append(bitmap, 2, 2);
+    try {
+      bitmap.isBar(4);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void sinkMatchesEncodedBarcode() throws BarcodeException {
+    AbstractBarcodeStrategy[] strategies = {new Code128(), new Ean13()};
+    String[] texts = {"JBarcodeBean 1.2.1", "400638133393"};
+    for (int i = 0; i < strategies.length; i++) {
+      ModuleBitmap streamed = new ModuleBitmap();
+      strategies[i].encode(texts[i], true, streamed);
+      ModuleBitmap expected = strategies[i].encode(texts[i], true).toModuleBitmap();
+      assertTrue(texts[i], expected.equals(streamed));
+      assertEquals(expected.hashCode(), streamed.hashCode());
+    }
+  }
+}
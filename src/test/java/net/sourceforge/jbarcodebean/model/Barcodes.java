@@ -0,0 +1,72 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeElement;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+import net.sourceforge.jbarcodebean.ModuleBuffer;
+
+/**
+ * Textual forms of encoded barcodes for comparisons in tests.
+ */
+final class Barcodes {
+
+  private Barcodes() {
+  }
+
+  /**
+   * Returns the bars and spaces as runs, such as <tt>s10B1s1B2</tt>,
+   * followed by the label text.
+   */
+  static String toString(EncodedBarcode barcode) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < barcode.getElementCount(); i++) {
+      result.append(barcode.getType(i) == BarcodeElement.TYPE_BAR ? 'B' : 's').append(barcode.getWidth(i));
+    }
+    return result.append('|').append(barcode.barcodeLabelText).toString();
+  }
+
+  /**
+   * Returns the bars and spaces collected by <tt>buffer</tt> as runs.
+   */
+  static String toString(ModuleBuffer buffer) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < buffer.getElementCount(); i++) {
+      result.append(buffer.getType(i) == BarcodeElement.TYPE_BAR ? 'B' : 's').append(buffer.getWidth(i));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Returns the modules of a barcode as a string of 1s for bars and 0s
+   * for spaces, without the margins.
+   */
+  static String toBits(EncodedBarcode barcode) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < barcode.getElementCount(); i++) {
+      char c = barcode.getType(i) == BarcodeElement.TYPE_BAR ? '1' : '0';
+      for (int j = 0; j < barcode.getWidth(i); j++) {
+        result.append(c);
+      }
+    }
+    int first = result.indexOf("1");
+    int last = result.lastIndexOf("1");
+    return first < 0 ? "" : result.substring(first, last + 1);
+  }
+}
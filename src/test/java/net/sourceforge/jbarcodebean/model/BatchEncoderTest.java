@@ -0,0 +1,85 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class BatchEncoderTest {
+
+  @Test
+  public void resultsAreInInputOrder() throws Exception {
+    Code128 strategy = new Code128();
+    List<String> texts = new ArrayList<String>();
+    for (int i = 0; i < 1000; i++) {
+      texts.add("ITEM-" + i * 7919);
+    }
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BatchEncoder.Result result = new BatchEncoder(strategy, pool).encode(texts, true);
+      assertEquals(texts.size(), result.size());
+      assertEquals(0, result.getFailureCount());
+      for (int i = 0; i < texts.size(); i++) {
+        assertTrue(result.isEncoded(i));
+        assertNull(result.getFailure(i));
+        assertEquals(Barcodes.toString(strategy.encode(texts.get(i), true)), Barcodes.toString(result.getBarcode(i)));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void failuresDoNotAbortTheBatch() {
+    String[] texts = {"400638133393", "12345", null, "978020137962", "40063813339X"};
+    BatchEncoder.Result result = new BatchEncoder(new Ean13()).encode(texts, true);
+    assertEquals(5, result.size());
+    assertEquals(3, result.getFailureCount());
+    assertTrue(result.isEncoded(0));
+    assertTrue(result.isEncoded(3));
+    for (int i : new int[] {1, 2, 4}) {
+      assertFalse(result.isEncoded(i));
+      assertNull(result.getBarcode(i));
+      assertNotNull(result.getFailure(i));
+    }
+    assertEquals("4006381333931", result.getBarcode(0).barcodeLabelText);
+    assertEquals("9780201379624", result.getBarcode(3).barcodeLabelText);
+  }
+
+  @Test
+  public void emptyBatch() {
+    BatchEncoder.Result result = new BatchEncoder(new Code39()).encode(Arrays.<String>asList(), false);
+    assertEquals(0, result.size());
+    assertEquals(0, result.getFailureCount());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void strategyIsRequired() {
+    new BatchEncoder(null);
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ChecksumsTest {
+
+  /** Returns <tt>text</tt> between two characters, for the range forms */
+  private static String pad(String text) {
+    return "#" + text + "#";
+  }
+
+  @Test
+  public void gtinMod10() {
+    assertEquals(1, Checksums.mod10("400638133393"));
+    assertEquals(4, Checksums.mod10("978020137962"));
+    assertEquals(1, Checksums.mod10(400638133393L));
+    assertEquals(4, Checksums.mod10(pad("978020137962"), 1, 13));
+    assertEquals(4, Checksums.mod10(pad("978020137962").toCharArray(), 1, 12));
+    assertTrue(Checksums.isValidMod10("4006381333931"));
+    assertFalse(Checksums.isValidMod10("4006381333932"));
+    assertEquals(-1, Checksums.mod10("40063813339X"));
+    assertEquals(-1, Checksums.mod10(-1L));
+  }
+
+  @Test
+  public void luhn() {
+    assertEquals(3, Checksums.luhn("7992739871"));
+    assertEquals(3, Checksums.luhn(7992739871L));
+    assertEquals(3, Checksums.luhn(pad("7992739871"), 1, 11));
+    assertEquals(3, Checksums.luhn(pad("7992739871").toCharArray(), 1, 10));
+    assertTrue(Checksums.isValidLuhn("79927398713"));
+    assertEquals(-1, Checksums.luhn("79927 39871"));
+  }
+
+  @Test
+  public void mod11() {
+    // 7*2 + 6*3 + 5*4 + 4*5 + 3*6 + 2*7 + 1*2 = 106 = 9 * 11 + 7
+    assertEquals(4, Checksums.mod11("1234567"));
+    assertEquals(4, Checksums.mod11(1234567L));
+    assertEquals(4, Checksums.mod11(pad("1234567"), 1, 8));
+    assertEquals(4, Checksums.mod11(pad("1234567").toCharArray(), 1, 7));
+    assertEquals(-1, Checksums.mod11("12a"));
+    assertEquals(-1, Checksums.mod11("12a".toCharArray(), 0, 3));
+  }
+
+  @Test
+  public void ean5() {
+    // 3 * (5 + 4 + 5) + 9 * (2 + 9) = 141
+    assertEquals(1, Checksums.ean5("52495"));
+    assertEquals(1, Checksums.ean5(52495L));
+    assertEquals(1, Checksums.ean5(pad("52495"), 1, 6));
+    assertEquals(1, Checksums.ean5(pad("52495").toCharArray(), 1, 5));
+    // 00007: 7 * 3 = 21
+    assertEquals(1, Checksums.ean5(7L));
+    assertEquals(1, Checksums.ean5("00007"));
+    assertEquals(-1, Checksums.ean5("1234"));
+    assertEquals(-1, Checksums.ean5("123456"));
+    assertEquals(-1, Checksums.ean5("1234X"));
+    assertEquals(-1, Checksums.ean5(100000L));
+    assertEquals(-1, Checksums.ean5(-1L));
+  }
+
+  @Test
+  public void code39Mod43() {
+    // C 12 + O 24 + D 13 + E 14 + 3 + 9 = 75 = 43 + 32
+    assertEquals(32, Checksums.code39("CODE39"));
+    assertEquals('W', Checksums.CODE_39_CHARACTERS.charAt(32));
+    assertEquals(32, Checksums.code39(pad("CODE39"), 1, 7));
+    assertEquals(32, Checksums.code39(pad("CODE39").toCharArray(), 1, 6));
+    assertEquals(-1, Checksums.code39("code39"));
+    assertEquals(-1, Checksums.code39("*".toCharArray(), 0, 1));
+  }
+
+  @Test
+  public void code93() {
+    // C is '+' (41) and K is '6'
+    int checks = 41 << 8 | 6;
+    assertEquals(checks, Checksums.code93("TEST93"));
+    assertEquals('+', Checksums.CODE_93_CHARACTERS.charAt(checks >> 8));
+    assertEquals('6', Checksums.CODE_93_CHARACTERS.charAt(checks & 0xff));
+    assertEquals(checks, Checksums.code93(pad("TEST93"), 1, 7));
+    assertEquals(checks, Checksums.code93(pad("TEST93").toCharArray(), 1, 6));
+    assertEquals(-1, Checksums.code93("test93"));
+  }
+
+  @Test
+  public void code11() {
+    // C: 5*1 + 4*2 + 10*3 + 3*4 + 2*5 + 1*6 = 71, 71 mod 11 = 5
+    // K: 5*1 + 5*2 + 4*3 + 10*4 + 3*5 + 2*6 + 1*7 = 101, 101 mod 11 = 2
+    int checks = 5 << 8 | 2;
+    assertEquals(checks, Checksums.code11("123-45"));
+    assertEquals(checks, Checksums.code11(pad("123-45"), 1, 7));
+    assertEquals(checks, Checksums.code11(pad("123-45").toCharArray(), 1, 6));
+    assertEquals(-1, Checksums.code11("123+45"));
+  }
+
+  @Test
+  public void code128() {
+    // Start B, then "PJJ123C": 104 + 48*1 + 42*2 + 42*3 + 17*4 + 18*5
+    // + 19*6 + 35*7 = 879 = 8 * 103 + 55
+    int[] values = {0, 104, 48, 42, 42, 17, 18, 19, 35};
+    assertEquals(55, Checksums.code128(values, 1, 8));
+    assertEquals(-1, Checksums.code128(new int[] {104, 106}, 0, 2));
+  }
+}
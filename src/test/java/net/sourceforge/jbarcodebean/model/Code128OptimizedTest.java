@@ -0,0 +1,170 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class Code128OptimizedTest {
+
+  private static final int STOP = 106;
+
+  /** Symbol values by the widths of their bars and spaces */
+  private static final Map<String, Integer> values = new HashMap<String, Integer>();
+
+  static {
+    for (AbstractBarcodeStrategy.CharacterCode cc : new Code128().getCodes()) {
+      StringBuilder key = new StringBuilder();
+      for (byte width : cc.widths) {
+        key.append(width);
+      }
+      values.put(key.toString(), cc.check);
+    }
+  }
+
+  /**
+   * Returns the symbol values of a Code 128 barcode, from the start
+   * character to the stop character, after checking the check character.
+   */
+  static List<Integer> symbols(EncodedBarcode barcode) {
+    List<Integer> result = new ArrayList<Integer>();
+    int i = 1;
+    while (true) {
+      StringBuilder key = new StringBuilder();
+      for (int j = 0; j < 6; j++) {
+        key.append(barcode.getWidth(i + j));
+      }
+      Integer value = values.get(key.toString());
+      if (value == null) {
+        key.append(barcode.getWidth(i + 6));
+        value = values.get(key.toString());
+        assertEquals(STOP, value.intValue());
+        result.add(value);
+        break;
+      }
+      result.add(value);
+      i += 6;
+    }
+    int total = result.get(0);
+    for (int k = 1; k < result.size() - 2; k++) {
+      total += k * result.get(k);
+    }
+    assertEquals("check character", total % 103, result.get(result.size() - 2).intValue());
+    return result;
+  }
+
+  /**
+   * Decodes the data characters of a Code 128 barcode, with the function
+   * codes as {@link Code128#FNC_1} to {@link Code128#FNC_4}.
+   */
+  static String decode(EncodedBarcode barcode) {
+    List<Integer> symbols = symbols(barcode);
+    StringBuilder text = new StringBuilder();
+    int set = symbols.get(0) - 103;
+    boolean shifted = false;
+    for (int k = 1; k < symbols.size() - 2; k++) {
+      int v = symbols.get(k);
+      int current = shifted ? 1 - set : set;
+      shifted = false;
+      if (current == 2 && v < 100) {
+        text.append((char) ('0' + v / 10)).append((char) ('0' + v % 10));
+      } else if (v < 64 || (current == 1 && v < 96)) {
+        text.append((char) (' ' + v));
+      } else if (v < 96) {
+        text.append((char) (v - 64));
+      } else if (v == 96) {
+        text.append(Code128.FNC_3);
+      } else if (v == 97) {
+        text.append(Code128.FNC_2);
+      } else if (v == 98) {
+        shifted = true;
+      } else if (v == 99) {
+        set = 2;
+      } else if (v == 100) {
+        if (current == 1) text.append(Code128.FNC_4); else set = 1;
+      } else if (v == 101) {
+        if (current == 0) text.append(Code128.FNC_4); else set = 0;
+      } else if (v == 102) {
+        text.append(Code128.FNC_1);
+      }
+    }
+    return text.toString();
+  }
+
+  /** Returns the number of symbol characters, including start, check and stop */
+  private static int length(BarcodeStrategy strategy, String text) throws BarcodeException {
+    return symbols(strategy.encode(text, true)).size();
+  }
+
+  @Test
+  public void shortestEncodings() throws BarcodeException {
+    Code128Optimized strategy = new Code128Optimized();
+    // start, data, check and stop characters, counted by hand
+    Object[][] cases = {
+        {"1234567890", 1 + 5 + 2},                  // C throughout
+        {"12345", 1 + 4 + 2},                       // C 12 34, change to B, 5
+        {"X12345678", 1 + 1 + 1 + 4 + 2},           // B X, change to C
+        {"a\n", 1 + 1 + 2 + 2},                     // B a, SHIFT \n
+        {"aaa\naaa", 1 + 3 + 2 + 3 + 2},            // one SHIFT instead of two changes
+        {"\n\n\na", 1 + 3 + 2 + 2},                 // A, SHIFT a
+        {"\na\na\n", 1 + 1 + 2 + 1 + 2 + 1 + 2},    // A with SHIFTs
+        {"AB" + Code128.FNC_1 + "1234", 1 + 2 + 1 + 1 + 2 + 2},
+        {String.valueOf(Code128.FNC_1), 1 + 1 + 2}
+    };
+    for (Object[] c : cases) {
+      String text = (String) c[0];
+      EncodedBarcode barcode = strategy.encode(text, true);
+      assertEquals(text, ((Integer) c[1]).intValue(), symbols(barcode).size());
+      assertEquals(text, decode(barcode));
+    }
+  }
+
+  @Test
+  public void neverLongerThanCode128() throws BarcodeException {
+    Code128 code128 = new Code128();
+    Code128Optimized optimized = new Code128Optimized();
+    String alphabet = "0123456789012345AZaz \t\n" + Code128.FNC_1 + Code128.FNC_3;
+    Random random = new Random(7);
+    for (int round = 0; round < 2000; round++) {
+      StringBuilder sb = new StringBuilder();
+      int len = 1 + random.nextInt(20);
+      for (int i = 0; i < len; i++) {
+        sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      String text = sb.toString();
+      if (code128.validate(text) >= 0) {
+        continue;
+      }
+      EncodedBarcode barcode = optimized.encode(text, true);
+      assertEquals(text, decode(barcode));
+      assertEquals(text, decode(code128.encode(text, true)));
+      assertTrue(text, symbols(barcode).size() <= length(code128, text));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class Code128Test {
+
+  /** Records the text seen by the checksum and postprocess stages */
+  static class RecordingCode128 extends Code128 {
+    final List<String> stages = new ArrayList<String>();
+
+    protected void augmentWithChecksum(StringBuilder text) throws BarcodeException {
+      super.augmentWithChecksum(text);
+      stages.add("checksum " + text.length());
+    }
+
+    protected void postprocess(StringBuilder text) {
+      stages.add("postprocess " + text.length());
+    }
+  }
+
+  /** Appends a space in the String form of postprocess */
+  static class PaddedCode128 extends Code128 {
+    protected String postprocess(String text) {
+      return text + ' ';
+    }
+  }
+
+  /** Encodes the text in upper case through the String form of preprocess */
+  static class UpperCaseCode128 extends Code128 {
+    protected String preprocess(String text) throws BarcodeException {
+      return super.preprocess(text.toUpperCase());
+    }
+  }
+
+  @Test
+  public void overriddenStagesRunInOrder() throws BarcodeException {
+    RecordingCode128 strategy = new RecordingCode128();
+    assertEquals(Barcodes.toString(new Code128().encode("Code 128", true)),
+        Barcodes.toString(strategy.encode("Code 128", true)));
+    assertEquals(2, strategy.stages.size());
+    String checksum = strategy.stages.get(0);
+    assertTrue(checksum.startsWith("checksum "));
+    int length = Integer.parseInt(checksum.substring(9));
+    assertEquals("postprocess " + length, strategy.stages.get(1));
+
+    strategy.stages.clear();
+    strategy.encode("Code 128", false);
+    assertEquals("[postprocess " + (length - 1) + "]", strategy.stages.toString());
+  }
+
+  @Test
+  public void stringFormOfPostprocessIsCalled() throws BarcodeException {
+    // The space follows the check character, just before the 13 module stop character.
+    String plain = Barcodes.toBits(new Code128().encode("AB", true));
+    String padded = Barcodes.toBits(new PaddedCode128().encode("AB", true));
+    int stop = plain.length() - 13;
+    assertEquals(plain.substring(0, stop) + "11011001100" + plain.substring(stop), padded);
+  }
+
+  @Test
+  public void fastPathCallsStringFormOfPreprocess() throws BarcodeException {
+    assertEquals(Barcodes.toString(new Code128().encode("ABC", true)).replace("|ABC", "|abc"),
+        Barcodes.toString(new UpperCaseCode128().encode("abc", true)));
+  }
+}
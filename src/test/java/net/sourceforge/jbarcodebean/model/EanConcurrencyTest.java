@@ -0,0 +1,101 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Encodes random numbers on many threads through one shared Ean13 or Ean8
+ * instance and compares every barcode with the one encoded on a single
+ * thread.  When the check digit was kept in a field, a thread could pick up
+ * the check digit of another thread's number.
+ */
+public class EanConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int TEXTS = 2000;
+  private static final int ROUNDS = 20;
+
+  @Test
+  public void sharedEan13() throws Exception {
+    encodeConcurrently(new Ean13(), 12);
+  }
+
+  @Test
+  public void sharedEan8() throws Exception {
+    encodeConcurrently(new Ean8(), 7);
+  }
+
+  private static void encodeConcurrently(final BarcodeStrategy strategy, int digits) throws Exception {
+    Random random = new Random(digits);
+    final String[] texts = new String[TEXTS];
+    final String[] expected = new String[TEXTS];
+    for (int i = 0; i < TEXTS; i++) {
+      StringBuilder text = new StringBuilder(digits);
+      for (int j = 0; j < digits; j++) {
+        text.append((char) ('0' + random.nextInt(10)));
+      }
+      texts[i] = text.toString();
+      expected[i] = Barcodes.toString(strategy.encode(texts[i], true));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      final CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+      for (int t = 0; t < THREADS; t++) {
+        final int offset = t * 7;
+        results.add(executor.submit(new Callable<Integer>() {
+          public Integer call() throws Exception {
+            start.await();
+            int mismatches = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+              for (int i = 0; i < TEXTS; i++) {
+                int index = (i + offset) % TEXTS;
+                EncodedBarcode barcode = strategy.encode(texts[index], true);
+                if (!expected[index].equals(Barcodes.toString(barcode))) {
+                  mismatches++;
+                }
+              }
+            }
+            return mismatches;
+          }
+        }));
+      }
+      start.countDown();
+      for (Future<Integer> result : results) {
+        assertEquals(0, result.get().intValue());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Checks the EAN and UPC strategies against symbols built from the
+ * published L, G and R digit patterns.
+ */
+public class EanUpcTest {
+
+  private static final String[] L = {
+    "0001101", "0011001", "0010011", "0111101", "0100011",
+    "0110001", "0101111", "0111011", "0110111", "0001011"
+  };
+  private static final String[] G = {
+    "0100111", "0110011", "0011011", "0100001", "0011101",
+    "0111001", "0000101", "0010001", "0001001", "0010111"
+  };
+  private static final String[] R = {
+    "1110010", "1100110", "1101100", "1000010", "1011100",
+    "1001110", "1010000", "1000100", "1001000", "1110100"
+  };
+
+  private static final String GUARD = "101";
+  private static final String CENTER = "01010";
+  private static final String UPC_E_STOP = "010101";
+  private static final String ADD_ON_START = "1011";
+  private static final String ADD_ON_DELIMITER = "01";
+
+  /**
+   * Returns the patterns of the digits of <tt>digits</tt>, each taken from
+   * L, G or R as given by the same position of <tt>sets</tt>.
+   */
+  private static String digits(String digits, String sets) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < digits.length(); i++) {
+      int d = digits.charAt(i) - '0';
+      char set = sets.charAt(i);
+      sb.append(set == 'L' ? L[d] : set == 'G' ? G[d] : R[d]);
+    }
+    return sb.toString();
+  }
+
+  private static String addOn(String digits, String sets) {
+    StringBuilder sb = new StringBuilder(ADD_ON_START);
+    for (int i = 0; i < digits.length(); i++) {
+      if (i > 0) {
+        sb.append(ADD_ON_DELIMITER);
+      }
+      sb.append(digits(digits.substring(i, i + 1), sets.substring(i, i + 1)));
+    }
+    return sb.toString();
+  }
+
+  private static void assertSymbol(String expectedBits, String expectedLabel, EncodedBarcode barcode) {
+    assertEquals(expectedBits, Barcodes.toBits(barcode));
+    assertEquals(expectedLabel, barcode.barcodeLabelText);
+  }
+
+  @Test
+  public void ean13() throws BarcodeException {
+    // The first digit 4 selects the parity LGLLGG of the left half.
+    String expected = GUARD + digits("006381", "LGLLGG") + CENTER + digits("333931", "RRRRRR") + GUARD;
+    assertSymbol(expected, "4006381333931", new Ean13().encode("400638133393", true));
+  }
+
+  @Test
+  public void ean8() throws BarcodeException {
+    String expected = GUARD + digits("9638", "LLLL") + CENTER + digits("5074", "RRRR") + GUARD;
+    assertSymbol(expected, "96385074", new Ean8().encode("9638507", true));
+  }
+
+  @Test
+  public void upcA() throws BarcodeException {
+    String expected = GUARD + digits("036000", "LLLLLL") + CENTER + digits("291452", "RRRRRR") + GUARD;
+    assertSymbol(expected, "036000291452", new UpcA().encode("03600029145", true));
+  }
+
+  @Test
+  public void upcEExpansion() throws BarcodeException {
+    assertEquals("04210000526", UpcE.expand("0425261"));
+    assertEquals("01230000045", UpcE.expand("0123453"));
+    assertEquals("01234000005", UpcE.expand("0123454"));
+    assertEquals("01234500005", UpcE.expand("0123455"));
+    assertEquals("01200000340", UpcE.expand("0123400"));
+    try {
+      UpcE.expand("2425261");
+      fail();
+    } catch (BarcodeException e) {
+      // expected: number system 2
+    }
+  }
+
+  @Test
+  public void upcE() throws BarcodeException {
+    // 04210000526 has check digit 4, which gives the parity GLGGLL.
+    String expected = GUARD + digits("425261", "GLGGLL") + UPC_E_STOP;
+    assertSymbol(expected, "04252614", new UpcE().encode("0425261", true));
+    // 14210000526 has check digit 1, whose parity GGLGLL in number
+    // system 0 is complemented in number system 1.
+    expected = GUARD + digits("425261", "LLGLGG") + UPC_E_STOP;
+    assertSymbol(expected, "14252611", new UpcE().encode("1425261", true));
+  }
+
+  @Test
+  public void ean5() throws BarcodeException {
+    // 3 * (5 + 4 + 5) + 9 * (2 + 9) = 141, so the checksum 1 selects GLGLL.
+    assertEquals(1, Checksums.ean5("52495"));
+    assertSymbol(addOn("52495", "GLGLL"), "52495", new Ean5().encode("52495", false));
+  }
+
+  @Test
+  public void ean2() throws BarcodeException {
+    // The value modulo 4 selects the parity: LL, LG, GL, GG.
+    assertSymbol(addOn("12", "LL"), "12", new Ean2().encode("12", false));
+    assertSymbol(addOn("13", "LG"), "13", new Ean2().encode("13", false));
+    assertSymbol(addOn("34", "GL"), "34", new Ean2().encode("34", false));
+    assertSymbol(addOn("99", "GG"), "99", new Ean2().encode("99", false));
+  }
+}
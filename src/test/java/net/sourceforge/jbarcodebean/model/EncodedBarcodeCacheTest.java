@@ -0,0 +1,137 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class EncodedBarcodeCacheTest {
+
+  @Test
+  public void leastRecentlyUsedBarcodeIsEvicted() throws Exception {
+    EncodedBarcodeCache cache = new EncodedBarcodeCache(2);
+    Code128 strategy = new Code128();
+    cache.encode(strategy, "A", true);
+    cache.encode(strategy, "B", true);
+    cache.encode(strategy, "A", true);   // hit; B is now the eldest
+    cache.encode(strategy, "C", true);   // evicts B
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+
+    cache.encode(strategy, "A", true);   // hit
+    cache.encode(strategy, "B", true);   // miss
+    assertEquals(2, cache.getHitCount());
+    assertEquals(4, cache.getMissCount());
+    assertEquals(2, cache.getEvictionCount());
+  }
+
+  @Test
+  public void keyIncludesStrategyTextAndChecksumFlag() throws Exception {
+    EncodedBarcodeCache cache = new EncodedBarcodeCache(10);
+    Code128 code128 = new Code128();
+    cache.encode(code128, "12", true);
+    cache.encode(code128, "12", false);
+    cache.encode(code128, "13", true);
+    cache.encode(new Code93(), "12", true);
+    assertEquals(4, cache.size());
+    assertEquals(0, cache.getHitCount());
+  }
+
+  @Test
+  public void barcodesMatchTheStrategy() throws Exception {
+    EncodedBarcodeCache cache = new EncodedBarcodeCache(10);
+    Code128 strategy = new Code128();
+    String expected = Barcodes.toString(strategy.encode("Hello", true));
+    assertEquals(expected, Barcodes.toString(cache.encode(strategy, "Hello", true)));
+    assertEquals(expected, Barcodes.toString(cache.encode(strategy, "Hello", true)));
+  }
+
+  @Test
+  public void callersGetTheirOwnCopy() throws Exception {
+    EncodedBarcodeCache cache = new EncodedBarcodeCache(10);
+    Code128 strategy = new Code128();
+    EncodedBarcode first = cache.encode(strategy, "Hello", true);
+    String expected = Barcodes.toString(first);
+    first.barcodeLabelText = "changed";
+    first.getElements()[0] = null;
+    EncodedBarcode second = cache.encode(strategy, "Hello", true);
+    assertNotSame(first, second);
+    assertEquals(expected, Barcodes.toString(second));
+    assertNotNull(second.getElements()[0]);
+  }
+
+  @Test
+  public void barcodesExpire() throws Exception {
+    EncodedBarcodeCache cache = new EncodedBarcodeCache(10, 1, TimeUnit.MILLISECONDS);
+    Code128 strategy = new Code128();
+    cache.encode(strategy, "A", true);
+    Thread.sleep(20);
+    cache.encode(strategy, "A", true);
+    assertEquals(0, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void failuresAreNotCached() throws Exception {
+    EncodedBarcodeCache cache = new EncodedBarcodeCache(10);
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.encode(new Ean13(), "123", true);
+        fail();
+      } catch (BarcodeException e) {
+        // expected
+      }
+    }
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void cachingStrategyIsSerializable() throws Exception {
+    CachingBarcodeStrategy strategy = new CachingBarcodeStrategy(new Code39(),
+        new EncodedBarcodeCache(5, 1, TimeUnit.HOURS));
+    strategy.encode("A", true);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(strategy);
+    out.close();
+    CachingBarcodeStrategy copy = (CachingBarcodeStrategy) new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+    EncodedBarcodeCache cache = copy.getCache();
+    assertEquals(0, cache.size());
+    assertEquals(5, cache.getMaximumSize());
+    assertEquals(1, cache.getTimeToLive(TimeUnit.HOURS));
+    assertEquals(Barcodes.toString(strategy.encode("A", true)), Barcodes.toString(copy.encode("A", true)));
+    assertEquals(1, cache.size());
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class Gs1_128Test {
+
+  private static final char FNC_1 = Code128.FNC_1;
+
+  private final Gs1_128 strategy = new Gs1_128();
+
+  private void assertData(String expected, String text) throws BarcodeException {
+    assertEquals(-1, strategy.validate(text));
+    EncodedBarcode barcode = strategy.encode(text, true);
+    assertEquals(expected, Code128OptimizedTest.decode(barcode));
+  }
+
+  @Test
+  public void fnc1FollowsVariableLengthElementsOnly() throws BarcodeException {
+    assertData(FNC_1 + "0109501101530003" + "17250101" + "10AB-123",
+        "(01)09501101530003(17)250101(10)AB-123");
+    assertData(FNC_1 + "10AB-123" + FNC_1 + "17250101",
+        "(10)AB-123(17)250101");
+    assertData(FNC_1 + "3103000123" + "21X" + FNC_1 + "3922995",
+        "(3103)000123(21)X(3922)995");
+  }
+
+  @Test
+  public void shorterTextAfterLongerText() throws BarcodeException {
+    // The data and the search arrays are reused by the next encode.
+    assertData(FNC_1 + "0109501101530003" + "10AB-123abcdefghijklmn" + FNC_1 + "17250101",
+        "(01)09501101530003(10)AB-123abcdefghijklmn(17)250101");
+    assertData(FNC_1 + "10A", "(10)A");
+    assertData(FNC_1 + "20" + "12", "(20)12");
+  }
+
+  @Test
+  public void escapedParenthesisIsData() throws BarcodeException {
+    assertData(FNC_1 + "10A(1)" + FNC_1 + "17250101", "(10)A\\(1)(17)250101");
+    assertEquals("(10)A(1)(17)250101", strategy.encode("(10)A\\(1)(17)250101", true).barcodeLabelText);
+  }
+
+  @Test
+  public void escapedParenthesisCountsAsOneCharacter() throws BarcodeException {
+    // 20 characters is the longest batch number
+    String twenty = "\\(\\(\\(\\(\\(123456789012345";
+    assertData(FNC_1 + "10(((((123456789012345", "(10)" + twenty);
+    assertEquals(4 + twenty.length(), strategy.validate("(10)" + twenty + "6"));
+  }
+
+  @Test
+  public void errorIndexes() {
+    assertEquals(0, strategy.validate(""));
+    assertEquals(0, strategy.validate("01)12345678901231"));
+    assertEquals(1, strategy.validate("(x1)1"));
+    assertEquals(1, strategy.validate("(05)1"));             // no such AI
+    assertEquals(3, strategy.validate("(01"));
+    assertEquals(4, strategy.validate("(310)000123"));       // four digit AI
+    assertEquals(17, strategy.validate("(01)1234567890123"));   // too short
+    assertEquals(18, strategy.validate("(01)12345678901234A")); // not a digit
+    assertEquals(24, strategy.validate("(10)123456789012345678901"));  // too long
+    assertEquals(5, strategy.validate("(10)A\\B"));          // escape of a non-parenthesis
+    assertEquals(5, strategy.validate("(10)A\\"));
+    assertEquals(5, strategy.validate("(30)1\\(2"));         // no escape in numeric data
+    assertEquals(4, strategy.validate("(10)\u00e9"));
+  }
+
+  @Test
+  public void invalidTextIsRejected() {
+    try {
+      strategy.encode("(10)A\\B", true);
+      fail();
+    } catch (BarcodeException e) {
+      assertEquals("Invalid GS1-128 element string at index 5", e.getMessage());
+    }
+  }
+}
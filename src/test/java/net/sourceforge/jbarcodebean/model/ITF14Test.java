@@ -0,0 +1,92 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+import net.sourceforge.jbarcodebean.ModuleBitmap;
+import net.sourceforge.jbarcodebean.ModuleBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ITF14Test {
+
+  private static final String GTIN = "1540014128876";
+
+  @Test
+  public void bearerBarsAreFiveNarrowElements() throws BarcodeException {
+    assertEquals(5, new ITF14().encode(GTIN, true).getBearerBarWidth());
+    assertEquals(10, new ITF14(2.5).encode(GTIN, true).getBearerBarWidth());
+    assertEquals(0, new Interleaved25().encode("12", true).getBearerBarWidth());
+  }
+
+  @Test
+  public void sinksReceiveBearerBars() throws BarcodeException {
+    ITF14 strategy = new ITF14(2.5);
+    EncodedBarcode barcode = strategy.encode(GTIN, true);
+
+    ModuleBuffer buffer = new ModuleBuffer();
+    strategy.encode(GTIN, true, buffer);
+    assertEquals(10, buffer.getBearerBarWidth());
+    assertEquals(10, buffer.toEncodedBarcode("").getBearerBarWidth());
+    buffer.clear();
+    assertEquals(0, buffer.getBearerBarWidth());
+
+    ModuleBitmap bitmap = new ModuleBitmap();
+    strategy.encode(GTIN, true, bitmap);
+    assertEquals(10, bitmap.getBearerBarWidth());
+    assertTrue(barcode.toModuleBitmap().equals(bitmap));
+  }
+
+  @Test
+  public void bitmapsDifferByBearerBars() throws BarcodeException {
+    ModuleBitmap framed = new ModuleBitmap();
+    new ITF14().encode(GTIN, true, framed);
+    ModuleBitmap plain = new ModuleBitmap();
+    new Interleaved25() {
+      protected byte getMarginWidth() {
+        return 15;
+      }
+    }.encode(GTIN + Ean13.checkDigit(GTIN, 13), false, plain);
+    assertEquals(plain.toBitSet(), framed.toBitSet());
+    assertEquals(plain.getModuleCount(), framed.getModuleCount());
+    assertFalse(plain.equals(framed));
+  }
+
+  @Test
+  public void checkDigitIsAddedWithoutChecksum() throws BarcodeException {
+    ITF14 strategy = new ITF14();
+    EncodedBarcode checked = strategy.encode(GTIN, true);
+    EncodedBarcode unchecked = strategy.encode(GTIN, false);
+    assertEquals(Barcodes.toString(checked), Barcodes.toString(unchecked));
+    assertEquals(GTIN + Ean13.checkDigit(GTIN, 13), unchecked.barcodeLabelText);
+
+    ModuleBuffer buffer = new ModuleBuffer();
+    strategy.encode(GTIN, false, buffer);
+    assertEquals(Barcodes.toString(checked), Barcodes.toString(buffer.toEncodedBarcode(checked.barcodeLabelText)));
+  }
+
+  @Test
+  public void copiesKeepBearerBars() throws BarcodeException {
+    assertEquals(5, new EncodedBarcode(new ITF14().encode(GTIN, true)).getBearerBarWidth());
+  }
+}
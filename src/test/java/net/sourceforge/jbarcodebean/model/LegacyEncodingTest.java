@@ -0,0 +1,131 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+
+import net.sourceforge.jbarcodebean.BarcodeElement;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Compares the barcodes of the bundled strategies with those encoded by
+ * release 1.2.0, before the strategies were rewritten around lookup tables
+ * and a single encoding pass.
+ * <p>
+ * Each line of <tt>encodings-1.2.0.txt</tt> holds the strategy class, the
+ * text (with <tt>\\uXXXX</tt> escapes), the checksum flag, the bars and
+ * spaces as runs and the label text.  Texts on which 1.2.0 failed with a
+ * runtime exception, and texts that 1.2.0 encoded although they are not
+ * valid for the barcode type (EAN numbers that are too short or hold
+ * non-digits, and non-ASCII characters in Code 93 Extended), are left out.
+ */
+public class LegacyEncodingTest {
+
+  @Test
+  public void sameBarcodesAsRelease120() throws Exception {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(
+        getClass().getResourceAsStream("encodings-1.2.0.txt"), "UTF-8"));
+    int count = 0;
+    try {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        String[] fields = line.split("\\|", -1);
+        BarcodeStrategy strategy = (BarcodeStrategy) Class.forName(
+            "net.sourceforge.jbarcodebean.model." + fields[0]).newInstance();
+        String text = unescape(fields[1]);
+        EncodedBarcode barcode = strategy.encode(text, fields[2].equals("1"));
+        assertEquals(line, fields[3] + '|' + fields[4], runs(barcode) + '|' + escape(barcode.barcodeLabelText));
+        count++;
+      }
+    } finally {
+      reader.close();
+    }
+    assertTrue(count > 600);
+  }
+
+  /**
+   * Code 39 upper-cases text outside ASCII with <tt>String.toUpperCase</tt>,
+   * as 1.2.0 did, so a sharp s becomes two characters.
+   */
+  @Test
+  public void code39UpperCasesNonAsciiText() throws Exception {
+    Code39 strategy = new Code39();
+    String text = "stra\u00dfe";
+    EncodedBarcode barcode = strategy.encode(text, true);
+    assertEquals("STRASSE", barcode.barcodeLabelText);
+    assertEquals(runs(strategy.encode("STRASSE", true)), runs(barcode));
+    assertEquals(-1, strategy.validate(text));
+    assertEquals(3, strategy.validate("caf\u00e9"));
+  }
+
+  /**
+   * Returns the bars and spaces as runs, merging adjacent elements of the
+   * same type as 1.2.0 did not.
+   */
+  private static String runs(EncodedBarcode barcode) {
+    StringBuilder result = new StringBuilder();
+    int type = -1;
+    int run = 0;
+    for (int i = 0; i < barcode.getElementCount(); i++) {
+      if (barcode.getType(i) == type) {
+        run += barcode.getWidth(i);
+        continue;
+      }
+      if (run > 0) {
+        result.append(type == BarcodeElement.TYPE_BAR ? 'B' : 's').append(run);
+      }
+      type = barcode.getType(i);
+      run = barcode.getWidth(i);
+    }
+    if (run > 0) {
+      result.append(type == BarcodeElement.TYPE_BAR ? 'B' : 's').append(run);
+    }
+    return result.toString();
+  }
+
+  private static String unescape(String s) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < s.length(); i++) {
+      if (s.startsWith("\\u", i)) {
+        result.append((char) Integer.parseInt(s.substring(i + 2, i + 6), 16));
+        i += 5;
+      } else {
+        result.append(s.charAt(i));
+      }
+    }
+    return result.toString();
+  }
+
+  private static String escape(String s) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 32 || c > 126) {
+        result.append(String.format("\\u%04x", (int) c));
+      } else {
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+}
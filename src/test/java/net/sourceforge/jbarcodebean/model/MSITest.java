@@ -0,0 +1,68 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class MSITest {
+
+  /**
+   * 60 digits, far more than a long holds.  The check digits were worked out
+   * by hand from the definitions: Luhn 5, then Luhn 8 over the payload and
+   * that 5, and IBM mod 11 (weights 2 to 7 from the right) 1.
+   */
+  private static final String PAYLOAD = "314159265358979323846264338327950288419716939937510582097494";
+
+  /** The same digits ending in 5 instead of 4, whose mod 11 check value is 10 */
+  private static final String PAYLOAD_10 = "314159265358979323846264338327950288419716939937510582097495";
+
+  /** Returns the bars and spaces of <tt>barcode</tt>, without the label */
+  private static String bars(EncodedBarcode barcode) {
+    String runs = Barcodes.toString(barcode);
+    return runs.substring(0, runs.indexOf('|'));
+  }
+
+  /** Returns the bars and spaces of <tt>digits</tt>, encoded as they are without a check digit */
+  private static String plain(String digits) throws BarcodeException {
+    return bars(new MSI().encode(digits, false));
+  }
+
+  @Test
+  public void mod10CheckDigitOfLongPayload() throws BarcodeException {
+    assertEquals(60, PAYLOAD.length());
+    EncodedBarcode barcode = new MSI().encode(PAYLOAD, true);
+    assertEquals(plain(PAYLOAD + "5"), bars(barcode));
+    assertEquals(PAYLOAD, barcode.barcodeLabelText);
+  }
+
+  @Test
+  public void mod11CheckDigitOfLongPayload() throws BarcodeException {
+    assertEquals(plain(PAYLOAD + "1"), bars(new MSI_Mod11().encode(PAYLOAD, true)));
+    assertEquals(plain(PAYLOAD_10 + "10"), bars(new MSI_Mod11().encode(PAYLOAD_10, true)));
+  }
+
+  @Test
+  public void mod10_10CheckDigitsOfLongPayload() throws BarcodeException {
+    assertEquals(plain(PAYLOAD + "58"), bars(new MSI_Mod10_10().encode(PAYLOAD, true)));
+  }
+}
@@ -0,0 +1,146 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.ModuleBuffer;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Tests the streaming form of <tt>encode</tt> and the two forms of the
+ * processing stages.
+ */
+public class StreamingEncodeTest {
+
+  private static final AbstractBarcodeStrategy[] STRATEGIES = {
+      new Code128(), new Code128Optimized(), new Code39(), new Code39_2to1(), new ExtendedCode39(),
+      new Interleaved25(), new Codabar(), new MSI(), new MSI_Mod11(), new Code93(), new Code93Extended(),
+      new Code11(), new Ean13(), new Ean8(), new UpcA(), new UpcE(), new Ean5(), new Ean2(), new ITF14()
+  };
+
+  private static final String[] TEXTS = {
+      "0", "12", "1234567", "0123456789012", "4006381333931", "HELLO WORLD", "hello", "A1B2", "123-45", "X\u0001Y"
+  };
+
+  @Test
+  public void sinkReceivesTheEncodedBarcode() throws Exception {
+    ModuleBuffer buffer = new ModuleBuffer(4);
+    int encoded = 0;
+    for (AbstractBarcodeStrategy strategy : STRATEGIES) {
+      for (String text : TEXTS) {
+        for (int checked = 0; checked < 2; checked++) {
+          String expected;
+          try {
+            expected = Barcodes.toString(strategy.encode(text, checked == 1));
+          } catch (BarcodeException e) {
+            continue;
+          }
+          buffer.clear();
+          strategy.encode(new StringBuilder(text), checked == 1, buffer);
+          String name = strategy.getClass().getSimpleName() + " " + text;
+          assertEquals(name, expected.substring(0, expected.indexOf('|')), Barcodes.toString(buffer));
+          encoded++;
+        }
+      }
+    }
+    assertEquals(true, encoded > 100);
+  }
+
+  @Test
+  public void strategyWithoutProcessingStages() throws Exception {
+    AbstractBarcodeStrategy strategy = new PlainCode39();
+    assertEquals(widths(new Code39().encode("ABC", false)), widths(strategy.encode("ABC", true)));
+  }
+
+  @Test
+  public void stringFormsAreCalled() throws Exception {
+    AbstractBarcodeStrategy strategy = new StringFormCode39();
+    assertEquals(widths(new Code39().encode("ABCZ", false)), widths(strategy.encode("abc", true)));
+    assertEquals(widths(new Code39().encode("ABC", false)), widths(strategy.encode("abc", false)));
+  }
+
+  @Test
+  public void stringFormOverridesBufferForm() throws Exception {
+    AbstractBarcodeStrategy strategy = new ReversedCode39();
+    assertEquals(widths(new Code39().encode("1BA", false)), widths(strategy.encode("ab1", false)));
+  }
+
+  private static String widths(net.sourceforge.jbarcodebean.EncodedBarcode barcode) {
+    String s = Barcodes.toString(barcode);
+    return s.substring(0, s.indexOf('|'));
+  }
+
+  /** Code 39 that implements neither form of the processing stages */
+  static class PlainCode39 extends AbstractBarcodeStrategy {
+
+    protected CharacterCode[] getCodes() {
+      return BaseCode39.codes;
+    }
+
+    public int requiresChecksum() {
+      return OPTIONAL_CHECKSUM;
+    }
+
+    protected boolean isInterleaved() {
+      return false;
+    }
+
+    protected char getStartSentinel() {
+      return '*';
+    }
+
+    protected char getStopSentinel() {
+      return '*';
+    }
+
+    protected byte getMarginWidth() {
+      return 11;
+    }
+
+    protected String getBarcodeLabelText(String text) {
+      return text;
+    }
+  }
+
+  /** Code 39 that implements the String forms only, as strategies written for 1.2.0 do */
+  static class StringFormCode39 extends PlainCode39 {
+
+    protected String preprocess(String text) {
+      return text.toUpperCase();
+    }
+
+    protected String augmentWithChecksum(String text) {
+      return text + 'Z';
+    }
+
+    protected String postprocess(String text) {
+      return text;
+    }
+  }
+
+  /** Code 39 subclass that overrides the String form of preprocess */
+  static class ReversedCode39 extends Code39 {
+
+    protected String preprocess(String text) throws BarcodeException {
+      return new StringBuilder(super.preprocess(text)).reverse().toString();
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+import net.sourceforge.jbarcodebean.EncodedBarcode;
+import net.sourceforge.jbarcodebean.ModuleBitmap;
+import net.sourceforge.jbarcodebean.ModuleBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class TwoWidthBarcodeStrategyTest {
+
+  /**
+   * Returns the runs of a 3:1 <tt>barcode</tt> with every narrow width
+   * replaced by <tt>narrow</tt> and every wide width by <tt>wide</tt>.  The
+   * margins, which are multiples of the narrow width, are scaled by
+   * <tt>narrow</tt>.
+   */
+  private static String scale(EncodedBarcode barcode, int narrow, int wide) {
+    StringBuilder sb = new StringBuilder();
+    int last = barcode.getElementCount() - 1;
+    for (int i = 0; i <= last; i++) {
+      int width = barcode.getWidth(i);
+      sb.append(i % 2 == 0 ? 's' : 'B');
+      sb.append(i == 0 || i == last ? width * narrow : width == 1 ? narrow : wide);
+    }
+    return sb.append('|').append(barcode.barcodeLabelText).toString();
+  }
+
+  @Test
+  public void codeTablesAreSharedByRatio() {
+    assertSame(new Code39().getCodeTable(), new Code39().getCodeTable());
+    assertSame(new Code39(2.5).getCodeTable(), new Code39(2.5).getCodeTable());
+    assertNotSame(new Code39().getCodeTable(), new Code39(2.5).getCodeTable());
+    assertSame(new Interleaved25().getCodeTable(), new ITF14().getCodeTable());
+  }
+
+  @Test
+  public void ratiosAreScaledToWholeUnits() throws BarcodeException {
+    EncodedBarcode template = new Code39().encode("JBB-121", true);
+    double[] ratios = {2.0, 2.25, 2.5, 8.0 / 3, 2.75};
+    int[][] widths = {{1, 2}, {4, 9}, {2, 5}, {3, 8}, {4, 11}};
+    for (int i = 0; i < ratios.length; i++) {
+      Code39 strategy = new Code39(ratios[i]);
+      int narrow = widths[i][0];
+      int wide = widths[i][1];
+      assertEquals(narrow, strategy.getNarrowWidth());
+      assertEquals(wide, strategy.getWideWidth());
+      assertEquals(ratios[i], strategy.getRatio(), 1e-12);
+
+      EncodedBarcode barcode = strategy.encode("JBB-121", true);
+      assertEquals(narrow, barcode.getNarrowWidth());
+      assertEquals(scale(template, narrow, wide), Barcodes.toString(barcode));
+    }
+  }
+
+  @Test
+  public void unsupportedRatiosAreRejected() {
+    double[] ratios = {1.5, 3.5, 2.2, Double.NaN};
+    for (double ratio : ratios) {
+      try {
+        new Code39(ratio);
+        fail(Double.toString(ratio));
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void sinksReceiveTheNarrowWidth() throws BarcodeException {
+    Interleaved25 strategy = new Interleaved25(2.5);
+    ModuleBuffer buffer = new ModuleBuffer();
+    strategy.encode("1234", true, buffer);
+    assertEquals(2, buffer.getNarrowWidth());
+    assertEquals(2, buffer.toEncodedBarcode("").getNarrowWidth());
+
+    ModuleBitmap bitmap = new ModuleBitmap();
+    strategy.encode("1234", true, bitmap);
+    assertEquals(2, bitmap.getNarrowWidth());
+    assertTrue(strategy.encode("1234", true).toModuleBitmap().equals(bitmap));
+
+    ModuleBitmap plain = new ModuleBitmap();
+    new Interleaved25().encode("1234", true, plain);
+    assertEquals(1, plain.getNarrowWidth());
+
+    assertEquals(10, new ITF14(2.5).encode("1234567890123", true).getBearerBarWidth());
+    assertEquals(1, new Code128().encode("1234", true).getNarrowWidth());
+  }
+
+  @Test
+  public void strategiesWithTheSameRatioAreEqual() {
+    assertEquals(new Code39(2.5), new Code39(2.5));
+    assertEquals(new Code39(2.5).hashCode(), new Code39(2.5).hashCode());
+    assertEquals(new Code39(), new Code39(3));
+    assertFalse(new Code39(2.5).equals(new Code39(3)));
+    assertFalse(new Code39(2).equals(new Code39_2to1()));
+    assertFalse(new Code39().equals(new ExtendedCode39()));
+  }
+
+  @Test
+  public void otherStrategiesAreEqualOnlyToThemselves() {
+    Code128 strategy = new Code128();
+    assertEquals(strategy, strategy);
+    assertFalse(strategy.equals(new Code128()));
+    assertFalse(new Ean13().equals(new Ean13()));
+  }
+
+  @Test
+  public void cacheKeepsRatiosApart() throws BarcodeException {
+    EncodedBarcodeCache cache = new EncodedBarcodeCache(10, 1, TimeUnit.HOURS);
+    EncodedBarcode wide = cache.encode(new Code39(), "A", true);
+    EncodedBarcode narrow = cache.encode(new Code39(2.5), "A", true);
+    assertEquals(2, cache.size());
+    assertEquals(0, cache.getHitCount());
+    assertEquals(1, wide.getNarrowWidth());
+    assertEquals(2, narrow.getNarrowWidth());
+
+    assertEquals(Barcodes.toString(narrow), Barcodes.toString(cache.encode(new Code39(2.5), "A", true)));
+    assertEquals(1, cache.getHitCount());
+  }
+}
@@ -0,0 +1,134 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License (LGPL) as
+ *  published by the Free Software Foundation; either version 3.0 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY of FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ */
+
+/**
+ * Title:        JBarcodeBean
+ * Description:  Barcode JavaBeans Component
+ * Copyright:    Copyright (C) 2004
+ * Company:      Dafydd Walters
+ */
+package net.sourceforge.jbarcodebean.model;
+
+import net.sourceforge.jbarcodebean.BarcodeException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Checks that {@link AbstractBarcodeStrategy#validate} accepts exactly the
+ * text that the strategies checking character by character can encode.
+ */
+public class ValidateTest {
+
+  /** The strategies that check each character against a bitset, each with a text it accepts */
+  private static final Object[][] strategies = {
+      {new Codabar(), "1234"},
+      {new Codabar_2to1(), "1234"},
+      {new Code11(), "1234"},
+      {new Code39(), "1234"},
+      {new Code39_2to1(), "1234"},
+      {new ExtendedCode39(), "1234"},
+      {new ExtendedCode39_2to1(), "1234"},
+      {new Code93(), "1234"},
+      {new Code93Extended(), "1234"},
+      {new Interleaved25(), "1234"},
+      {new Interleaved25_2to1(), "1234"},
+      {new MSI(), "1234"},
+      {new MSI_Mod11(), "1234"},
+      {new MSI_Mod10_10(), "1234"}
+  };
+
+  private static boolean encodes(AbstractBarcodeStrategy strategy, String text) {
+    try {
+      if (strategy.requiresChecksum() != BarcodeStrategy.NO_CHECKSUM) {
+        strategy.encode(text, true);
+      }
+      if (strategy.requiresChecksum() != BarcodeStrategy.MANDATORY_CHECKSUM) {
+        strategy.encode(text, false);
+      }
+      return true;
+    } catch (BarcodeException e) {
+      return false;
+    }
+  }
+
+  @Test
+  public void validateAgreesWithEncode() {
+    for (Object[] s : strategies) {
+      AbstractBarcodeStrategy strategy = (AbstractBarcodeStrategy) s[0];
+      String prefix = (String) s[1];
+      String name = strategy.getClass().getSimpleName();
+      assertEquals(name, -1, strategy.validate(prefix));
+      for (int ch = 0; ch < 0x400; ch++) {
+        checkAgreement(strategy, name, prefix, (char) ch);
+      }
+      checkAgreement(strategy, name, prefix, Character.MAX_VALUE);
+      checkAgreement(strategy, name, prefix, strategy.getStartSentinel());
+      checkAgreement(strategy, name, prefix, strategy.getStopSentinel());
+    }
+  }
+
+  private static void checkAgreement(AbstractBarcodeStrategy strategy, String name, String prefix, char ch) {
+    String text = prefix + ch;
+    int index = strategy.validate(text);
+    String message = name + " " + Integer.toHexString(ch);
+    assertEquals(message, encodes(strategy, text), index < 0);
+    if (index >= 0) {
+      assertEquals(message, prefix.length(), index);
+      assertFalse(message, strategy.canEncode(text));
+    }
+  }
+
+  @Test
+  public void sentinelsAreRejected() {
+    assertEquals(1, new Code39().validate("A*B"));
+    assertEquals(1, new Code93().validate("A*B"));
+    assertEquals(1, new Code11().validate("1*2"));
+    assertEquals(1, new Interleaved25().validate("1A2"));
+    assertEquals(1, new Codabar().validate("1A2"));
+    assertEquals(1, new Codabar().validate("1B2"));
+    assertEquals(1, new MSI().validate("1B2"));
+    Object[][] cases = {{new Code39(), "A*B"}, {new Interleaved25(), "1A2"}, {new Codabar(), "1B2"}};
+    for (Object[] c : cases) {
+      try {
+        ((AbstractBarcodeStrategy) c[0]).encode((String) c[1], false);
+        fail((String) c[1]);
+      } catch (BarcodeException expected) {
+      }
+    }
+  }
+
+  @Test
+  public void code39AcceptsLowerCase() throws BarcodeException {
+    Code39 strategy = new Code39();
+    assertEquals(-1, strategy.validate("jbb-1.2 $/+%"));
+    assertTrue(strategy.canEncode("abc"));
+    assertEquals(Barcodes.toString(strategy.encode("ABC", true)), Barcodes.toString(strategy.encode("abc", true)));
+    assertEquals(3, strategy.validate("abc!"));
+  }
+
+  @Test
+  public void extendedStrategiesAcceptAllOfAscii() {
+    StringBuilder ascii = new StringBuilder();
+    for (char ch = 0; ch < 128; ch++) {
+      ascii.append(ch);
+    }
+    AbstractBarcodeStrategy[] extended = {new ExtendedCode39(), new ExtendedCode39_2to1(), new Code93Extended()};
+    for (AbstractBarcodeStrategy strategy : extended) {
+      assertEquals(strategy.getClass().getSimpleName(), -1, strategy.validate(ascii));
+      assertEquals(strategy.getClass().getSimpleName(), 3, strategy.validate("abc\u00e9"));
+    }
+  }
+}